@@ -0,0 +1,116 @@
+package billing;
+
+import dip.BatchSender;
+import metrics.MetricsRegistry;
+import money.Money;
+import ocp.DiscountCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import srp.Invoice;
+import srp.InvoiceStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BillingPipelineBenchmark {
+
+    static final int ORDERS = 1_000_000;
+    static final int SUBMIT_CHUNK = 4_096;
+    static final String[] TIERS = {"STANDARD", "PREMIUM", "VIP", "GOLD"};
+
+    @Param({"16", "256"})
+    int batchSize;
+
+    Order[] orders;
+    List<Order> orderList;
+    Path file;
+    InvoiceStore store;
+    LongAdder notified;
+    BatchSender sender;
+    DiscountCalculator discounts;
+    BillingPipeline pipeline;
+
+    @Setup(Level.Trial)
+    public void createOrders() {
+        orders = new Order[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            orders[i] = new Order("customer-" + (i % 10_000), TIERS[i & 3], Money.ofMinor(1_000 + i % 99_000));
+        }
+        orderList = List.of(orders);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("billing-", ".txt");
+        store = new InvoiceStore(file, Integer.MAX_VALUE, Duration.ZERO);
+        notified = new LongAdder();
+        discounts = new DiscountCalculator();
+        sender = messages -> {
+            notified.add(messages.size());
+            return messages;
+        };
+        int cores = Runtime.getRuntime().availableProcessors();
+        pipeline = new BillingPipeline(discounts, store, sender,
+                new BillingPipeline.Options(cores, 1, Math.max(1, cores / 2), 1024, batchSize),
+                new MetricsRegistry(false));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        pipeline.close();
+        if (notified.sum() != ORDERS) throw new IllegalStateException("notified " + notified.sum() + " of " + ORDERS);
+        store.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long billMillionOrders() {
+        for (Order order : orders) {
+            pipeline.submit(order);
+        }
+        pipeline.complete().join();
+        return notified.sum();
+    }
+
+    @Benchmark
+    public long billMillionOrdersInChunks() {
+        for (int from = 0; from < ORDERS; from += SUBMIT_CHUNK) {
+            pipeline.submitAll(orderList.subList(from, Math.min(ORDERS, from + SUBMIT_CHUNK)));
+        }
+        pipeline.complete().join();
+        return notified.sum();
+    }
+
+    @Benchmark
+    public long handGluedSynchronousCalls() {
+        for (Order order : orders) {
+            Money discount = discounts.computeDiscount(order.customerType(), order.amount());
+            Invoice invoice = new Invoice(order.customer(), order.amount().minus(discount));
+            store.append(invoice);
+            sender.sendBatch(List.of(invoice.summary()));
+        }
+        return notified.sum();
+    }
+}
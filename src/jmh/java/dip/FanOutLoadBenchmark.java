@@ -0,0 +1,69 @@
+package dip;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class FanOutLoadBenchmark {
+
+    static final int EVENTS = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Node {
+        @Param({"100000"})
+        int recipients;
+
+        @Param({"5", "1000000"})
+        double tokensPerSecond;
+
+        FanOutNotifier notifier;
+        String[] recipientNames;
+        String[] messages;
+
+        @Setup
+        public void setUp() {
+            notifier = new FanOutNotifier(ChannelRegistry.withDefaults(),
+                    new RecipientRateLimiter(1 << 16, 20, tokensPerSecond),
+                    new SlidingWindowDeduplicator(1 << 20, Duration.ofSeconds(30)));
+            recipientNames = new String[recipients];
+            for (int i = 0; i < recipients; i++) {
+                recipientNames[i] = "user-" + i + "@example.com";
+            }
+            messages = new String[EVENTS];
+            for (int i = 0; i < EVENTS; i++) {
+                messages[i] = "order " + i + " shipped";
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Traffic {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public FanOutNotifier.Result fanOutEmailAndSms(Node node, Traffic traffic) {
+        String recipient = node.recipientNames[traffic.random.nextInt(node.recipientNames.length)];
+        String message = node.messages[traffic.random.nextInt(EVENTS)];
+        return node.notifier.notify(recipient, message, "email", "sms");
+    }
+}
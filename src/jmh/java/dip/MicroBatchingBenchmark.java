@@ -0,0 +1,79 @@
+package dip;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MicroBatchingBenchmark {
+
+    static final int MESSAGES = 512;
+
+    @Param({"50"})
+    int roundTripMicros;
+
+    @Param({"64"})
+    int maxBatchSize;
+
+    InMemoryGateway gateway;
+    MicroBatcher batcher;
+    String[] messages;
+    @SuppressWarnings("unchecked")
+    CompletableFuture<String>[] results = new CompletableFuture[MESSAGES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gateway = new InMemoryGateway("sms", Duration.ofNanos(roundTripMicros * 1_000L));
+        batcher = new MicroBatcher("sms", gateway, maxBatchSize, Duration.ofMillis(1));
+        messages = new String[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            messages[i] = "message-" + i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        batcher.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void oneAtATime(Blackhole bh) {
+        for (String message : messages) {
+            bh.consume(gateway.sendBatch(List.of(message)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void microBatched(Blackhole bh) {
+        for (int i = 0; i < MESSAGES; i++) {
+            results[i] = batcher.submit(messages[i]);
+        }
+        for (CompletableFuture<String> result : results) {
+            bh.consume(result.join());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package isp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapabilityRoutingBenchmark {
+
+    @Param({"SCAN", "FAX"})
+    Capability capability;
+
+    String document = "quarterly report";
+    MultiFunctionDevice[] fleet = {new OldPrinter(), new PhotoCopier()};
+    DeviceRegistry registry = new DeviceRegistry();
+
+    @Setup
+    public void setUp() {
+        for (MultiFunctionDevice device : fleet) {
+            registry.register(device);
+        }
+    }
+
+    @Benchmark
+    public String exceptionProbing() {
+        for (MultiFunctionDevice device : fleet) {
+            try {
+                return switch (capability) {
+                    case PRINT -> device.print(document);
+                    case SCAN -> device.scan(document);
+                    case FAX -> device.fax(document);
+                };
+            } catch (UnsupportedOperationException e) {
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Optional<String> capabilityIndex() {
+        return registry.execute(capability, document);
+    }
+}
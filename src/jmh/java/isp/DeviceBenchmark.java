@@ -0,0 +1,41 @@
+package isp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceBenchmark {
+
+    String document = "quarterly report";
+    OldPrinter printer = new OldPrinter();
+    PhotoCopier copier = new PhotoCopier();
+
+    @Benchmark
+    public String oldPrinterPrint() {
+        return printer.print(document);
+    }
+
+    @Benchmark
+    public String photoCopierPrint() {
+        return copier.print(document);
+    }
+
+    @Benchmark
+    public String photoCopierScan() {
+        return copier.scan(document);
+    }
+}
@@ -0,0 +1,104 @@
+package isp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class DeviceSchedulerBenchmark {
+
+    @Param({"4"})
+    int devices;
+
+    @Param({"50"})
+    int serviceMicros;
+
+    @Param({"2000"})
+    int slowServiceMicros;
+
+    DeviceRegistry registry;
+    DeviceScheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new DeviceRegistry();
+        registry.register(new SimulatedDevice(slowServiceMicros));
+        for (int i = 1; i < devices; i++) {
+            registry.register(new SimulatedDevice(serviceMicros));
+        }
+        scheduler = new DeviceScheduler(registry);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    @Benchmark
+    public String directBlockingCalls() {
+        return registry.deviceFor(Capability.PRINT).orElseThrow().print("page");
+    }
+
+    @Benchmark
+    public String scheduledWithStealing() {
+        return scheduler.submit(Capability.PRINT, "page").join();
+    }
+
+    static final class SimulatedDevice implements MultiFunctionDevice {
+        private final ReentrantLock busy = new ReentrantLock();
+        private final long serviceNanos;
+
+        SimulatedDevice(int serviceMicros) {
+            this.serviceNanos = TimeUnit.MICROSECONDS.toNanos(serviceMicros);
+        }
+
+        @Override
+        public String print(String content) {
+            busy.lock();
+            try {
+                LockSupport.parkNanos(serviceNanos);
+                return "printing: " + content;
+            } finally {
+                busy.unlock();
+            }
+        }
+
+        @Override
+        public String scan(String content) {
+            throw new UnsupportedOperationException("SimulatedDevice cannot scan");
+        }
+
+        @Override
+        public String fax(String content) {
+            throw new UnsupportedOperationException("SimulatedDevice cannot fax");
+        }
+
+        @Override
+        public Set<Capability> capabilities() {
+            return EnumSet.of(Capability.PRINT);
+        }
+    }
+}
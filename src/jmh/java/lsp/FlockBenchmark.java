@@ -0,0 +1,61 @@
+package lsp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlockBenchmark {
+
+    @Param({"1000000"})
+    int birds;
+
+    Bird[] objects;
+    Flock flock;
+
+    @Setup
+    public void setUp() {
+        objects = new Bird[birds];
+        flock = new Flock(birds);
+        for (int i = 0; i < birds; i++) {
+            objects[i] = i % 10 == 0 ? new Ostrich() : new Sparrow();
+            flock.add(objects[i], i, i, i * 0.001f);
+        }
+    }
+
+    @Benchmark
+    public int moveEachObject() {
+        int steps = 0;
+        for (Bird bird : objects) {
+            steps += bird.move().length();
+        }
+        return steps;
+    }
+
+    @Benchmark
+    public Flock flockTick() {
+        flock.tick(0.016f);
+        return flock;
+    }
+
+    @Benchmark
+    public Flock flockTickParallel() {
+        flock.tickParallel(0.016f);
+        return flock;
+    }
+}
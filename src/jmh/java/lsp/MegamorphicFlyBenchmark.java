@@ -0,0 +1,299 @@
+package lsp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MegamorphicFlyBenchmark {
+
+    static final int BIRDS = 4096;
+
+    @Param({"1", "2", "3", "8"})
+    int subtypes;
+
+    OpenBird[] open;
+    SealedBird[] sealed;
+    SealedBatches batches;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        open = new OpenBird[BIRDS];
+        sealed = new SealedBird[BIRDS];
+        for (int i = 0; i < BIRDS; i++) {
+            int kind = random.nextInt(subtypes);
+            open[i] = openBird(kind);
+            sealed[i] = sealedBird(kind);
+        }
+        batches = new SealedBatches(sealed);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BIRDS)
+    public int virtualCallOnMixedArray() {
+        int total = 0;
+        for (OpenBird bird : open) {
+            total += bird.fly();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BIRDS)
+    public int patternSwitchOnMixedArray() {
+        int total = 0;
+        for (SealedBird bird : sealed) {
+            total += fly(bird);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BIRDS)
+    public int kindSortedBatches() {
+        return batches.fly();
+    }
+
+    static int fly(SealedBird bird) {
+        return switch (bird) {
+            case S0 b -> b.fly();
+            case S1 b -> b.fly();
+            case S2 b -> b.fly();
+            case S3 b -> b.fly();
+            case S4 b -> b.fly();
+            case S5 b -> b.fly();
+            case S6 b -> b.fly();
+            case S7 b -> b.fly();
+        };
+    }
+
+    static OpenBird openBird(int kind) {
+        return switch (kind) {
+            case 0 -> new O0();
+            case 1 -> new O1();
+            case 2 -> new O2();
+            case 3 -> new O3();
+            case 4 -> new O4();
+            case 5 -> new O5();
+            case 6 -> new O6();
+            case 7 -> new O7();
+            default -> throw new IllegalArgumentException("kind " + kind);
+        };
+    }
+
+    static SealedBird sealedBird(int kind) {
+        return switch (kind) {
+            case 0 -> new S0(1);
+            case 1 -> new S1(2);
+            case 2 -> new S2(3);
+            case 3 -> new S3(4);
+            case 4 -> new S4(5);
+            case 5 -> new S5(6);
+            case 6 -> new S6(7);
+            case 7 -> new S7(8);
+            default -> throw new IllegalArgumentException("kind " + kind);
+        };
+    }
+
+    abstract static class OpenBird {
+        abstract int fly();
+    }
+
+    static class O0 extends OpenBird {
+        @Override
+        int fly() {
+            return 1;
+        }
+    }
+
+    static class O1 extends OpenBird {
+        @Override
+        int fly() {
+            return 2;
+        }
+    }
+
+    static class O2 extends OpenBird {
+        @Override
+        int fly() {
+            return 3;
+        }
+    }
+
+    static class O3 extends OpenBird {
+        @Override
+        int fly() {
+            return 4;
+        }
+    }
+
+    static class O4 extends OpenBird {
+        @Override
+        int fly() {
+            return 5;
+        }
+    }
+
+    static class O5 extends OpenBird {
+        @Override
+        int fly() {
+            return 6;
+        }
+    }
+
+    static class O6 extends OpenBird {
+        @Override
+        int fly() {
+            return 7;
+        }
+    }
+
+    static class O7 extends OpenBird {
+        @Override
+        int fly() {
+            return 8;
+        }
+    }
+
+    sealed interface SealedBird permits S0, S1, S2, S3, S4, S5, S6, S7 {
+    }
+
+    record S0(int wingbeats) implements SealedBird {
+        int fly() {
+            return wingbeats;
+        }
+    }
+
+    record S1(int wingbeats) implements SealedBird {
+        int fly() {
+            return wingbeats;
+        }
+    }
+
+    record S2(int wingbeats) implements SealedBird {
+        int fly() {
+            return wingbeats;
+        }
+    }
+
+    record S3(int wingbeats) implements SealedBird {
+        int fly() {
+            return wingbeats;
+        }
+    }
+
+    record S4(int wingbeats) implements SealedBird {
+        int fly() {
+            return wingbeats;
+        }
+    }
+
+    record S5(int wingbeats) implements SealedBird {
+        int fly() {
+            return wingbeats;
+        }
+    }
+
+    record S6(int wingbeats) implements SealedBird {
+        int fly() {
+            return wingbeats;
+        }
+    }
+
+    record S7(int wingbeats) implements SealedBird {
+        int fly() {
+            return wingbeats;
+        }
+    }
+
+    static final class SealedBatches {
+        final S0[] s0;
+        final S1[] s1;
+        final S2[] s2;
+        final S3[] s3;
+        final S4[] s4;
+        final S5[] s5;
+        final S6[] s6;
+        final S7[] s7;
+
+        SealedBatches(SealedBird[] birds) {
+            List<S0> l0 = new ArrayList<>();
+            List<S1> l1 = new ArrayList<>();
+            List<S2> l2 = new ArrayList<>();
+            List<S3> l3 = new ArrayList<>();
+            List<S4> l4 = new ArrayList<>();
+            List<S5> l5 = new ArrayList<>();
+            List<S6> l6 = new ArrayList<>();
+            List<S7> l7 = new ArrayList<>();
+            for (SealedBird bird : birds) {
+                switch (bird) {
+                    case S0 b -> l0.add(b);
+                    case S1 b -> l1.add(b);
+                    case S2 b -> l2.add(b);
+                    case S3 b -> l3.add(b);
+                    case S4 b -> l4.add(b);
+                    case S5 b -> l5.add(b);
+                    case S6 b -> l6.add(b);
+                    case S7 b -> l7.add(b);
+                }
+            }
+            s0 = l0.toArray(new S0[0]);
+            s1 = l1.toArray(new S1[0]);
+            s2 = l2.toArray(new S2[0]);
+            s3 = l3.toArray(new S3[0]);
+            s4 = l4.toArray(new S4[0]);
+            s5 = l5.toArray(new S5[0]);
+            s6 = l6.toArray(new S6[0]);
+            s7 = l7.toArray(new S7[0]);
+        }
+
+        int fly() {
+            int total = 0;
+            for (S0 b : s0) {
+                total += b.fly();
+            }
+            for (S1 b : s1) {
+                total += b.fly();
+            }
+            for (S2 b : s2) {
+                total += b.fly();
+            }
+            for (S3 b : s3) {
+                total += b.fly();
+            }
+            for (S4 b : s4) {
+                total += b.fly();
+            }
+            for (S5 b : s5) {
+                total += b.fly();
+            }
+            for (S6 b : s6) {
+                total += b.fly();
+            }
+            for (S7 b : s7) {
+                total += b.fly();
+            }
+            return total;
+        }
+    }
+}
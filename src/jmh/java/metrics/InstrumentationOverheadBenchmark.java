@@ -0,0 +1,44 @@
+package metrics;
+
+import ocp.DiscountCalculator;
+import ocp.TierRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationOverheadBenchmark {
+
+    double amount = 250.0;
+    DiscountCalculator plain = new DiscountCalculator(TierRegistry.withDefaults());
+    DiscountCalculator disabled = Instrumented.discountCalculator(TierRegistry.withDefaults(), new MetricsRegistry(false));
+    DiscountCalculator enabled = Instrumented.discountCalculator(TierRegistry.withDefaults(), new MetricsRegistry(true));
+
+    @Benchmark
+    public double uninstrumented() {
+        return plain.computeDiscount("VIP", amount);
+    }
+
+    @Benchmark
+    public double instrumentedDisabled() {
+        return disabled.computeDiscount("VIP", amount);
+    }
+
+    @Benchmark
+    public double instrumentedEnabled() {
+        return enabled.computeDiscount("VIP", amount);
+    }
+}
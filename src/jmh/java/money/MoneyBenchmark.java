@@ -0,0 +1,108 @@
+package money;
+
+import ocp.BatchDiscountCalculator;
+import ocp.CustomerTier;
+import ocp.DiscountCalculator;
+import ocp.TierRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"4096"})
+    int size;
+
+    DiscountCalculator calculator;
+    BatchDiscountCalculator batch;
+    CustomerTier tier;
+    byte[] tiers;
+    double[] amounts;
+    long[] amountsMinor;
+    double[] discounts;
+    long[] discountsMinor;
+    long[] reconciled;
+    Money money;
+    double amount;
+    StringBuilder text;
+
+    @Setup
+    public void setUp() {
+        TierRegistry registry = TierRegistry.withDefaults();
+        calculator = new DiscountCalculator(registry);
+        batch = new BatchDiscountCalculator(registry);
+        tier = registry.resolve("PREMIUM");
+        SplittableRandom random = new SplittableRandom(42);
+        tiers = new byte[size];
+        amounts = new double[size];
+        amountsMinor = new long[size];
+        discounts = new double[size];
+        discountsMinor = new long[size];
+        reconciled = new long[size];
+        for (int i = 0; i < size; i++) {
+            tiers[i] = (byte) random.nextInt(0, 3);
+            amountsMinor[i] = random.nextLong(1, 1_000_000);
+            amounts[i] = amountsMinor[i] / 100.0;
+        }
+        money = Money.ofMinor(12_345);
+        amount = 123.45;
+        text = new StringBuilder(32);
+    }
+
+    @Benchmark
+    public long[] doubleBatchWithBigDecimalReconciliation() {
+        batch.computeDiscounts(tiers, amounts, discounts);
+        for (int i = 0; i < size; i++) {
+            reconciled[i] = BigDecimal.valueOf(discounts[i]).setScale(2, RoundingMode.HALF_EVEN)
+                    .unscaledValue().longValue();
+        }
+        return reconciled;
+    }
+
+    @Benchmark
+    public long[] minorUnitsBatch() {
+        batch.computeDiscounts(tiers, amountsMinor, discountsMinor);
+        return discountsMinor;
+    }
+
+    @Benchmark
+    public double singleDouble() {
+        return calculator.computeDiscount(tier, amount);
+    }
+
+    @Benchmark
+    public Money singleMoney() {
+        return calculator.computeDiscount(tier, money);
+    }
+
+    @Benchmark
+    public int formatMinorUnits() {
+        text.setLength(0);
+        return MoneyMath.appendTo(text, money.minorUnits()).length();
+    }
+
+    @Benchmark
+    public int formatDouble() {
+        text.setLength(0);
+        return text.append(amount).length();
+    }
+}
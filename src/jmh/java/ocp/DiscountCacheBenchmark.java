@@ -0,0 +1,74 @@
+package ocp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountCacheBenchmark {
+
+    static final int REQUESTS = 1 << 16;
+
+    @Param({"1000", "1000000"})
+    int distinctAmounts;
+
+    @Param({"0", "100"})
+    int pricingCost;
+
+    @Param({"4096"})
+    int capacity;
+
+    CustomerTier[] tiers;
+    double[] amounts;
+    DiscountCache.Pricing pricing;
+    DiscountCache cache;
+    int next;
+
+    @Setup
+    public void setUp() {
+        TierRegistry registry = TierRegistry.withDefaults();
+        DiscountCalculator calculator = new DiscountCalculator(registry);
+        int cost = pricingCost;
+        pricing = (tier, amount) -> {
+            Blackhole.consumeCPU(cost);
+            return calculator.computeDiscount(tier, amount);
+        };
+        cache = new DiscountCache(registry, capacity, pricing);
+        Random random = new Random(7);
+        tiers = new CustomerTier[REQUESTS];
+        amounts = new double[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            tiers[i] = registry.byCode(random.nextInt(3));
+            amounts[i] = random.nextInt(distinctAmounts) / 100.0;
+        }
+    }
+
+    @Benchmark
+    public double direct() {
+        int i = next++ & (REQUESTS - 1);
+        return pricing.discount(tiers[i], amounts[i]);
+    }
+
+    @Benchmark
+    public double cached() {
+        int i = next++ & (REQUESTS - 1);
+        return cache.computeDiscount(tiers[i], amounts[i]);
+    }
+}
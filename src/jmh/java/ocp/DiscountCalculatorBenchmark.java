@@ -0,0 +1,48 @@
+package ocp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountCalculatorBenchmark {
+
+    @Param({"standard", "PREMIUM", "vip", "unknown"})
+    String customerType;
+
+    double amount = 123.45;
+    DiscountCalculator calculator;
+    CustomerTier tier;
+
+    @Setup
+    public void setUp() {
+        TierRegistry registry = TierRegistry.withDefaults();
+        calculator = new DiscountCalculator(registry);
+        tier = registry.resolve(customerType);
+    }
+
+    @Benchmark
+    public double computeDiscountByName() {
+        return calculator.computeDiscount(customerType, amount);
+    }
+
+    @Benchmark
+    public double computeDiscountByTier() {
+        return calculator.computeDiscount(tier, amount);
+    }
+}
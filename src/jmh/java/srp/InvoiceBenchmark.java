@@ -0,0 +1,36 @@
+package srp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceBenchmark {
+
+    Invoice invoice = new Invoice("Alice", 42.5);
+    StringBuilder out = new StringBuilder(64);
+
+    @Benchmark
+    public String summary() {
+        return invoice.summary();
+    }
+
+    @Benchmark
+    public StringBuilder renderFreshInvoice() {
+        out.setLength(0);
+        return new Invoice("Alice", 42.5).renderTo(out);
+    }
+}
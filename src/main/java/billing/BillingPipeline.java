@@ -0,0 +1,342 @@
+package billing;
+
+import dip.BatchSender;
+import dip.NotificationService;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+import money.Money;
+import ocp.DiscountCalculator;
+import srp.Invoice;
+import srp.InvoiceStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class BillingPipeline implements AutoCloseable {
+
+    public record Options(int pricingParallelism, int persistParallelism, int notifyParallelism,
+                          int bufferCapacity, int batchSize) {
+
+        public Options {
+            if (pricingParallelism < 1) throw new IllegalArgumentException("pricingParallelism must be positive");
+            if (persistParallelism < 1) throw new IllegalArgumentException("persistParallelism must be positive");
+            if (notifyParallelism < 1) throw new IllegalArgumentException("notifyParallelism must be positive");
+            if (bufferCapacity < 1) throw new IllegalArgumentException("bufferCapacity must be positive");
+            if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive");
+        }
+
+        public static Options defaults() {
+            int cores = Runtime.getRuntime().availableProcessors();
+            return new Options(cores, 1, Math.max(1, cores / 2), 1024, 256);
+        }
+    }
+
+    public record StageStats(String name, int parallelism, long items, long batches, long failed,
+                             double itemsPerSecond) {}
+
+    private final DiscountCalculator discounts;
+    private final InvoiceStore store;
+    private final BatchSender notifier;
+    private final Options options;
+    private final ExecutorService executor;
+    private final Stage<Order> pricing;
+    private final Stage<Invoice> persisting;
+    private final Stage<Invoice> notifying;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final AtomicReference<RuntimeException> lastError = new AtomicReference<>();
+    private volatile boolean completing;
+
+    public BillingPipeline(DiscountCalculator discounts, InvoiceStore store, BatchSender notifier, Options options) {
+        this(discounts, store, notifier, options, MetricsRegistry.global());
+    }
+
+    public BillingPipeline(DiscountCalculator discounts, InvoiceStore store, BatchSender notifier, Options options,
+                           MetricsRegistry metrics) {
+        if (discounts == null) throw new IllegalArgumentException("discounts must not be null");
+        if (store == null) throw new IllegalArgumentException("store must not be null");
+        if (notifier == null) throw new IllegalArgumentException("notifier must not be null");
+        if (options == null) throw new IllegalArgumentException("options must not be null");
+        if (metrics == null) throw new IllegalArgumentException("metrics must not be null");
+        this.discounts = discounts;
+        this.store = store;
+        this.notifier = notifier;
+        this.options = options;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(
+                options.pricingParallelism() + options.persistParallelism() + options.notifyParallelism(),
+                r -> Thread.ofPlatform().daemon().name("billing-" + threadIndex.incrementAndGet()).unstarted(r));
+        this.notifying = new Stage<>("notify", options.notifyParallelism(), metrics, this::notifyBatch,
+                () -> {
+                    executor.shutdown();
+                    completion.complete(null);
+                });
+        this.persisting = new Stage<>("persist", options.persistParallelism(), metrics, this::persistBatch,
+                notifying::complete);
+        this.pricing = new Stage<>("pricing", options.pricingParallelism(), metrics, this::priceBatch,
+                persisting::complete);
+    }
+
+    public static BatchSender sender(NotificationService notifications, String channel) {
+        if (notifications == null) throw new IllegalArgumentException("notifications must not be null");
+        return messages -> {
+            List<String> results = new ArrayList<>(messages.size());
+            for (String message : messages) {
+                results.add(notifications.notifyUser(channel, message));
+            }
+            return results;
+        };
+    }
+
+    public void submit(Order order) {
+        if (order == null) throw new IllegalArgumentException("order must not be null");
+        if (completing) throw new IllegalStateException("billing pipeline is completing");
+        pricing.submit(order.customer(), order);
+    }
+
+    public void submitAll(List<Order> orders) {
+        if (orders == null) throw new IllegalArgumentException("orders must not be null");
+        for (Order order : orders) {
+            if (order == null) throw new IllegalArgumentException("orders must not contain null");
+        }
+        if (completing) throw new IllegalStateException("billing pipeline is completing");
+        pricing.submitAll(orders, Order::customer);
+    }
+
+    public CompletableFuture<Void> complete() {
+        synchronized (this) {
+            if (!completing) {
+                completing = true;
+                pricing.complete();
+            }
+        }
+        return completion;
+    }
+
+    public List<StageStats> stats() {
+        return List.of(pricing.stats(), persisting.stats(), notifying.stats());
+    }
+
+    public RuntimeException lastError() {
+        return lastError.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            complete().join();
+        } finally {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private int priceBatch(int lane, List<Order> orders) {
+        List<Invoice> invoices = new ArrayList<>(orders.size());
+        int failed = 0;
+        for (Order order : orders) {
+            try {
+                Money discount = discounts.computeDiscount(order.customerType(), order.amount());
+                Invoice invoice = new Invoice(order.customer(), order.amount().minus(discount));
+                Invoice.requireStorable(invoice);
+                invoices.add(invoice);
+            } catch (RuntimeException e) {
+                lastError.set(e);
+                failed++;
+            }
+        }
+        if (!invoices.isEmpty()) {
+            persisting.submit(lane, invoices);
+        }
+        return failed;
+    }
+
+    private int persistBatch(int lane, List<Invoice> invoices) {
+        try {
+            store.appendAll(invoices);
+        } catch (RuntimeException e) {
+            lastError.set(e);
+            return invoices.size();
+        }
+        notifying.submit(lane, invoices);
+        return 0;
+    }
+
+    private int notifyBatch(int lane, List<Invoice> invoices) {
+        List<String> messages = new ArrayList<>(invoices.size());
+        for (Invoice invoice : invoices) {
+            messages.add(invoice.summary());
+        }
+        try {
+            List<String> results = notifier.sendBatch(messages);
+            if (results == null || results.size() != messages.size()) {
+                throw new IllegalStateException("notifier returned " + (results == null ? "no" : results.size())
+                        + " results for a batch of " + messages.size());
+            }
+        } catch (RuntimeException e) {
+            lastError.set(e);
+            return invoices.size();
+        }
+        return 0;
+    }
+
+    private interface BatchHandler<T> {
+        int handle(int lane, List<T> batch);
+    }
+
+    private final class Stage<T> {
+        private final String name;
+        private final List<Lane> lanes;
+        private final BatchHandler<T> handler;
+        private final Runnable onDone;
+        private final Timer timer;
+        private final AtomicInteger open;
+        private final LongAdder items = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final AtomicLong firstNanos = new AtomicLong();
+        private final AtomicLong lastNanos = new AtomicLong();
+
+        Stage(String name, int parallelism, MetricsRegistry metrics, BatchHandler<T> handler, Runnable onDone) {
+            this.name = name;
+            this.handler = handler;
+            this.onDone = onDone;
+            this.timer = metrics.timer("billing." + name);
+            this.open = new AtomicInteger(parallelism);
+            List<Lane> created = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                created.add(new Lane(i));
+            }
+            this.lanes = List.copyOf(created);
+        }
+
+        void submit(String key, T item) {
+            submit(key.hashCode(), List.of(item));
+        }
+
+        void submitAll(List<T> items, Function<T, String> key) {
+            List<List<T>> chunks = new ArrayList<>(lanes.size());
+            for (int i = 0; i < lanes.size(); i++) {
+                chunks.add(new ArrayList<>(items.size() / lanes.size() + 1));
+            }
+            for (T item : items) {
+                chunks.get(Math.floorMod(key.apply(item).hashCode(), lanes.size())).add(item);
+            }
+            for (int i = 0; i < chunks.size(); i++) {
+                if (!chunks.get(i).isEmpty()) submit(i, chunks.get(i));
+            }
+        }
+
+        void submit(int route, List<T> chunk) {
+            Lane lane = lanes.get(Math.floorMod(route, lanes.size()));
+            lane.queued.incrementAndGet();
+            lane.input.submit(chunk);
+        }
+
+        void complete() {
+            lanes.forEach(lane -> lane.input.close());
+        }
+
+        StageStats stats() {
+            long count = items.sum();
+            long elapsed = lastNanos.get() - firstNanos.get();
+            double perSecond = elapsed <= 0 ? 0.0 : count * 1e9 / elapsed;
+            return new StageStats(name, lanes.size(), count, batches.sum(), failed.sum(), perSecond);
+        }
+
+        private void process(int lane, List<T> batch) {
+            firstNanos.compareAndSet(0, System.nanoTime());
+            long start = timer.start();
+            int failures;
+            try {
+                failures = handler.handle(lane, batch);
+            } catch (Throwable e) {
+                lastError.set(e instanceof RuntimeException runtime ? runtime
+                        : new IllegalStateException("billing stage " + name + " failed", e));
+                failures = batch.size();
+            }
+            if (failures == 0) {
+                timer.stop(start);
+            } else {
+                timer.fail(start);
+                failed.add(failures);
+            }
+            items.add(batch.size());
+            batches.increment();
+            lastNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        }
+
+        private void laneDone() {
+            if (open.decrementAndGet() == 0) {
+                onDone.run();
+            }
+        }
+
+        private final class Lane implements Flow.Subscriber<List<T>> {
+            final int index;
+            final SubmissionPublisher<List<T>> input = new SubmissionPublisher<>(executor, options.bufferCapacity());
+            final AtomicInteger queued = new AtomicInteger();
+            List<T> batch = new ArrayList<>(options.batchSize());
+            Flow.Subscription subscription;
+
+            Lane(int index) {
+                this.index = index;
+                input.subscribe(this);
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(options.bufferCapacity());
+            }
+
+            @Override
+            public void onNext(List<T> chunk) {
+                int batchSize = options.batchSize();
+                for (int from = 0; from < chunk.size(); ) {
+                    int take = Math.min(chunk.size() - from, batchSize - batch.size());
+                    batch.addAll(from == 0 && take == chunk.size() ? chunk : chunk.subList(from, from + take));
+                    from += take;
+                    if (batch.size() == batchSize) flush();
+                }
+                if (queued.decrementAndGet() == 0) flush();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                lastError.compareAndSet(null, error instanceof RuntimeException runtime ? runtime
+                        : new IllegalStateException("billing stage " + name + " failed", error));
+                flush();
+                laneDone();
+            }
+
+            @Override
+            public void onComplete() {
+                flush();
+                laneDone();
+            }
+
+            private void flush() {
+                if (batch.isEmpty()) return;
+                List<T> full = batch;
+                batch = new ArrayList<>(options.batchSize());
+                process(index, full);
+            }
+        }
+    }
+}
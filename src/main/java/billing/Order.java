@@ -0,0 +1,11 @@
+package billing;
+
+import money.Money;
+
+public record Order(String customer, String customerType, Money amount) {
+
+    public Order {
+        if (customer == null || customer.isEmpty()) throw new IllegalArgumentException("customer must not be empty");
+        if (amount == null) throw new IllegalArgumentException("amount must not be null");
+    }
+}
@@ -0,0 +1,115 @@
+package dip;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AsyncNotificationService implements AutoCloseable {
+
+    public enum Backpressure { BLOCK, DROP, FAIL_FAST }
+
+    private final NotificationService delegate;
+    private final int queueCapacity;
+    private final int perChannelLimit;
+    private final Backpressure backpressure;
+    private final Semaphore submissions;
+    private final ConcurrentMap<String, Semaphore> channelPermits = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder dropped = new LongAdder();
+
+    public AsyncNotificationService(NotificationService delegate, int queueCapacity, int perChannelLimit,
+                                    Backpressure backpressure) {
+        if (delegate == null) throw new IllegalArgumentException("delegate must not be null");
+        if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity must be positive");
+        if (perChannelLimit < 1) throw new IllegalArgumentException("perChannelLimit must be positive");
+        if (backpressure == null) throw new IllegalArgumentException("backpressure must not be null");
+        this.delegate = delegate;
+        this.queueCapacity = queueCapacity;
+        this.perChannelLimit = perChannelLimit;
+        this.backpressure = backpressure;
+        this.submissions = new Semaphore(queueCapacity);
+    }
+
+    public CompletableFuture<String> notifyUserAsync(String channel, String message) {
+        if (delegate.channels().lookup(channel) == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("unknown channel: " + channel));
+        }
+        if (!admit()) {
+            dropped.increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("notification queue full, dropped message for " + channel));
+        }
+        CompletableFuture<String> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> dispatch(channel, message, result));
+        } catch (RejectedExecutionException e) {
+            submissions.release();
+            throw e;
+        }
+        return result;
+    }
+
+    public int pending() {
+        return queueCapacity - submissions.availablePermits();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    int channelLimits() {
+        return channelPermits.size();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private boolean admit() {
+        switch (backpressure) {
+            case BLOCK -> {
+                try {
+                    submissions.acquire();
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("interrupted while waiting for queue capacity", e);
+                }
+            }
+            case DROP -> {
+                return submissions.tryAcquire();
+            }
+            default -> {
+                if (submissions.tryAcquire()) return true;
+                throw new RejectedExecutionException("notification queue full (capacity " + queueCapacity + ")");
+            }
+        }
+    }
+
+    private void dispatch(String channel, String message, CompletableFuture<String> result) {
+        Semaphore permits = channelPermits.computeIfAbsent(channelKey(channel), key -> new Semaphore(perChannelLimit));
+        try {
+            permits.acquire();
+            try {
+                result.complete(delegate.notifyUser(channel, message));
+            } finally {
+                permits.release();
+            }
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            submissions.release();
+        }
+    }
+
+    private static String channelKey(String channel) {
+        return channel.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,7 @@
+package dip;
+
+import java.util.List;
+
+public interface BatchSender {
+    List<String> sendBatch(List<String> messages);
+}
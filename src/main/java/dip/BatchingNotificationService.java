@@ -0,0 +1,32 @@
+package dip;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class BatchingNotificationService implements AutoCloseable {
+
+    private final Map<String, MicroBatcher> batchers;
+
+    public BatchingNotificationService(Map<String, ? extends BatchSender> gateways, int maxBatchSize, Duration linger) {
+        Map<String, MicroBatcher> byChannel = new HashMap<>();
+        gateways.forEach((channel, gateway) -> byChannel.put(channel.toLowerCase(Locale.ROOT),
+                new MicroBatcher(channel, gateway, maxBatchSize, linger)));
+        this.batchers = Map.copyOf(byChannel);
+    }
+
+    public CompletableFuture<String> notifyUser(String channel, String message) {
+        MicroBatcher batcher = channel == null ? null : batchers.get(channel.toLowerCase(Locale.ROOT));
+        if (batcher == null) {
+            return CompletableFuture.completedFuture(message);
+        }
+        return batcher.submit(message);
+    }
+
+    @Override
+    public void close() {
+        batchers.values().forEach(MicroBatcher::close);
+    }
+}
@@ -0,0 +1,119 @@
+package dip;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class ChannelRegistry {
+
+    private static final int MAX_SEED_ATTEMPTS = 64;
+
+    private volatile Table table = Table.EMPTY;
+
+    public static ChannelRegistry withDefaults() {
+        ChannelRegistry registry = new ChannelRegistry();
+        registry.register("email", new EmailSender());
+        registry.register("sms", new SmsSender());
+        return registry;
+    }
+
+    public synchronized void register(String channel, MessageSender sender) {
+        if (channel == null || channel.isBlank()) throw new IllegalArgumentException("channel must not be blank");
+        if (sender == null) throw new IllegalArgumentException("sender must not be null");
+        String key = channel.toLowerCase(Locale.ROOT);
+        Map<String, MessageSender> senders = table.toMap();
+        if (senders.containsKey(key)) {
+            throw new IllegalArgumentException("channel already registered: " + key);
+        }
+        senders.put(key, sender);
+        table = Table.build(senders);
+    }
+
+    public MessageSender lookup(String channel) {
+        if (channel == null) return null;
+        Table current = table;
+        String[] keys = current.keys;
+        int mask = keys.length - 1;
+        for (int slot = current.slot(foldedHash(channel)); keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot].equalsIgnoreCase(channel)) return current.senders[slot];
+        }
+        return null;
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    static int foldedHash(String value) {
+        int h = 0;
+        for (int i = 0; i < value.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        return h;
+    }
+
+    private static final class Table {
+        static final Table EMPTY = new Table(new String[2], new MessageSender[2], 1, 31, 0);
+
+        final String[] keys;
+        final MessageSender[] senders;
+        final int seed;
+        final int shift;
+        final int size;
+
+        Table(String[] keys, MessageSender[] senders, int seed, int shift, int size) {
+            this.keys = keys;
+            this.senders = senders;
+            this.seed = seed;
+            this.shift = shift;
+            this.size = size;
+        }
+
+        Table(int bits, int seed, int size) {
+            this(new String[1 << bits], new MessageSender[1 << bits], seed, 32 - bits, size);
+        }
+
+        int slot(int hash) {
+            return ((hash ^ (hash >>> 16)) * seed) >>> shift;
+        }
+
+        Map<String, MessageSender> toMap() {
+            Map<String, MessageSender> map = new LinkedHashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) map.put(keys[i], senders[i]);
+            }
+            return map;
+        }
+
+        static Table build(Map<String, MessageSender> senders) {
+            int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(senders.size() * 2 - 1));
+            for (int tableBits = bits; tableBits <= bits + 1; tableBits++) {
+                for (int attempt = 0; attempt < MAX_SEED_ATTEMPTS; attempt++) {
+                    Table table = new Table(tableBits, seed(attempt), senders.size());
+                    if (table.fill(senders, false)) return table;
+                }
+            }
+            Table table = new Table(bits + 1, seed(0), senders.size());
+            table.fill(senders, true);
+            return table;
+        }
+
+        private static int seed(int attempt) {
+            return (0x9E3779B9 + attempt * 0x632BE5AA) | 1;
+        }
+
+        private boolean fill(Map<String, MessageSender> entries, boolean probe) {
+            int mask = keys.length - 1;
+            for (Map.Entry<String, MessageSender> entry : entries.entrySet()) {
+                int slot = slot(foldedHash(entry.getKey()));
+                while (keys[slot] != null) {
+                    if (!probe) return false;
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = entry.getKey();
+                senders[slot] = entry.getValue();
+            }
+            return true;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package dip;
 
-public class EmailSender {
+public class EmailSender implements MessageSender {
+    @Override
     public String send(String message) {
         return "email: " + message;
     }
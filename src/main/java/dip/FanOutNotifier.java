@@ -0,0 +1,67 @@
+package dip;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+public class FanOutNotifier {
+
+    public enum Outcome {
+        SENT, DUPLICATE, RATE_LIMITED
+    }
+
+    public record Result(Outcome outcome, List<String> deliveries) {
+        static final Result DUPLICATE = new Result(Outcome.DUPLICATE, List.of());
+        static final Result RATE_LIMITED = new Result(Outcome.RATE_LIMITED, List.of());
+    }
+
+    private final ChannelRegistry channels;
+    private final RecipientRateLimiter rateLimiter;
+    private final SlidingWindowDeduplicator deduplicator;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    public FanOutNotifier(ChannelRegistry channels, RecipientRateLimiter rateLimiter,
+                          SlidingWindowDeduplicator deduplicator) {
+        if (channels == null) throw new IllegalArgumentException("channels must not be null");
+        if (rateLimiter == null) throw new IllegalArgumentException("rateLimiter must not be null");
+        if (deduplicator == null) throw new IllegalArgumentException("deduplicator must not be null");
+        this.channels = channels;
+        this.rateLimiter = rateLimiter;
+        this.deduplicator = deduplicator;
+    }
+
+    public Result notify(String recipient, String message, String... targets) {
+        if (recipient == null || recipient.isEmpty()) throw new IllegalArgumentException("recipient must not be empty");
+        if (message == null) throw new IllegalArgumentException("message must not be null");
+        if (!deduplicator.firstSeen(recipient, message)) {
+            duplicates.increment();
+            return Result.DUPLICATE;
+        }
+        if (!rateLimiter.tryAcquire(recipient)) {
+            deduplicator.forget(recipient, message);
+            rateLimited.increment();
+            return Result.RATE_LIMITED;
+        }
+        List<String> deliveries = new ArrayList<>(targets.length);
+        for (String channel : targets) {
+            MessageSender sender = channels.lookup(channel);
+            deliveries.add(sender == null ? message : sender.send(message));
+        }
+        sent.increment();
+        return new Result(Outcome.SENT, deliveries);
+    }
+
+    public long sentCount() {
+        return sent.sum();
+    }
+
+    public long duplicateCount() {
+        return duplicates.sum();
+    }
+
+    public long rateLimitedCount() {
+        return rateLimited.sum();
+    }
+}
@@ -0,0 +1,41 @@
+package dip;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+public class InMemoryGateway implements BatchSender {
+
+    private final String channel;
+    private final long roundTripNanos;
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    public InMemoryGateway(String channel) {
+        this(channel, Duration.ZERO);
+    }
+
+    public InMemoryGateway(String channel, Duration roundTrip) {
+        if (channel == null) throw new IllegalArgumentException("channel must not be null");
+        this.channel = channel;
+        this.roundTripNanos = roundTrip.toNanos();
+    }
+
+    @Override
+    public List<String> sendBatch(List<String> messages) {
+        if (roundTripNanos > 0) {
+            LockSupport.parkNanos(roundTripNanos);
+        }
+        batches.add(List.copyOf(messages));
+        List<String> receipts = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            receipts.add(channel + ": " + message);
+        }
+        return receipts;
+    }
+
+    public List<List<String>> batches() {
+        return List.copyOf(batches);
+    }
+}
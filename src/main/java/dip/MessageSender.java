@@ -0,0 +1,5 @@
+package dip;
+
+public interface MessageSender {
+    String send(String message);
+}
@@ -0,0 +1,141 @@
+package dip;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MicroBatcher implements AutoCloseable {
+
+    private static final Pending CLOSE = new Pending(null);
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final BatchSender sender;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong state = new AtomicLong();
+    private final Thread flusher;
+
+    public MicroBatcher(String name, BatchSender sender, int maxBatchSize, Duration linger) {
+        if (sender == null) throw new IllegalArgumentException("sender must not be null");
+        if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be positive");
+        if (linger.isNegative()) throw new IllegalArgumentException("linger must not be negative");
+        this.sender = sender;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.flusher = Thread.ofPlatform().daemon().name("micro-batcher-" + name).start(this::run);
+    }
+
+    public CompletableFuture<String> submit(String message) {
+        if (message == null) throw new IllegalArgumentException("message must not be null");
+        long current;
+        do {
+            current = state.get();
+            if ((current & CLOSED) != 0) {
+                return CompletableFuture.failedFuture(new IllegalStateException("batcher is closed"));
+            }
+        } while (!state.compareAndSet(current, current + 1));
+        try {
+            Pending pending = new Pending(message);
+            queue.add(pending);
+            return pending.result;
+        } finally {
+            state.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        if ((state.getAndUpdate(s -> s | CLOSED) & CLOSED) != 0) return;
+        while (state.get() != CLOSED) {
+            Thread.onSpinWait();
+        }
+        queue.add(CLOSE);
+        boolean interrupted = false;
+        while (flusher.isAlive()) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        boolean sawClose = false;
+        boolean running = true;
+        while (running) {
+            try {
+                Pending next = queue.take();
+                long deadline = System.nanoTime() + lingerNanos;
+                while (next != CLOSE) {
+                    batch.add(next);
+                    if (batch.size() == maxBatchSize) break;
+                    next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                }
+                sawClose = next == CLOSE;
+                running = !sawClose;
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        drainRemaining(sawClose);
+    }
+
+    private void drainRemaining(boolean sawClose) {
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        int end = sawClose ? 0 : remaining.indexOf(CLOSE);
+        List<Pending> accepted = remaining.subList(0, end < 0 ? remaining.size() : end);
+        for (int from = 0; from < accepted.size(); from += maxBatchSize) {
+            flush(accepted.subList(from, Math.min(accepted.size(), from + maxBatchSize)));
+        }
+        for (Pending late : remaining.subList(accepted.size(), remaining.size())) {
+            if (late != CLOSE) {
+                late.result.completeExceptionally(new IllegalStateException("batcher is closed"));
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<String> messages = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            messages.add(pending.message);
+        }
+        try {
+            List<String> results = sender.sendBatch(messages);
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("gateway returned " + (results == null ? "no" : results.size())
+                        + " results for a batch of " + batch.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (Throwable e) {
+            for (Pending pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Pending {
+        final String message;
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        Pending(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -2,12 +2,23 @@ package dip;
 
 public class NotificationService {
 
+    private final ChannelRegistry channels;
+
+    public NotificationService() {
+        this(ChannelRegistry.withDefaults());
+    }
+
+    public NotificationService(ChannelRegistry channels) {
+        if (channels == null) throw new IllegalArgumentException("channels must not be null");
+        this.channels = channels;
+    }
+
+    ChannelRegistry channels() {
+        return channels;
+    }
+
     public String notifyUser(String channel, String message) {
-        if ("email".equalsIgnoreCase(channel)) {
-            return new EmailSender().send(message);
-        } else if ("sms".equalsIgnoreCase(channel)) {
-            return new SmsSender().send(message);
-        }
-        return message;
+        MessageSender sender = channels.lookup(channel);
+        return sender == null ? message : sender.send(message);
     }
 }
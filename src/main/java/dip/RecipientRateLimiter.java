@@ -0,0 +1,117 @@
+package dip;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+public final class RecipientRateLimiter {
+
+    static final int WAYS = 4;
+    static final int TIME_BITS = 48;
+
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+
+    private final AtomicLongArray buckets;
+    private final int mask;
+    private final long intervalMicros;
+    private final long burstMicros;
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    public RecipientRateLimiter(int stripes, int burst, double tokensPerSecond) {
+        this(stripes, burst, tokensPerSecond, System::nanoTime);
+    }
+
+    RecipientRateLimiter(int stripes, int burst, double tokensPerSecond, LongSupplier nanoClock) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a positive power of two");
+        }
+        if (stripes > Integer.MAX_VALUE / WAYS) throw new IllegalArgumentException("too many stripes: " + stripes);
+        if (burst < 1) throw new IllegalArgumentException("burst must be positive");
+        if (!(tokensPerSecond > 0)) throw new IllegalArgumentException("tokensPerSecond must be positive");
+        this.intervalMicros = Math.max(1, Math.round(1_000_000 / tokensPerSecond));
+        if ((double) burst * intervalMicros >= TIME_MASK >>> 1) {
+            throw new IllegalArgumentException("burst takes too long to refill at " + tokensPerSecond + " tokens per second");
+        }
+        this.buckets = new AtomicLongArray(stripes * WAYS);
+        this.mask = stripes - 1;
+        this.burstMicros = burst * intervalMicros;
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+    }
+
+    public boolean tryAcquire(String recipient) {
+        long hash = hash(recipient);
+        int base = stripeOf(hash) * WAYS;
+        long tag = tagOf(hash);
+        long now = (nanoClock.getAsLong() - origin) / 1_000 & TIME_MASK;
+        while (true) {
+            int slot = find(base, tag);
+            long entry;
+            long arrival;
+            if (slot >= 0) {
+                entry = buckets.get(slot);
+                if ((entry & ~TIME_MASK) != tag) continue;
+                arrival = Math.max(entry & TIME_MASK, now) + intervalMicros;
+                if (arrival - now > burstMicros) {
+                    return false;
+                }
+            } else {
+                slot = victim(base);
+                entry = buckets.get(slot);
+                arrival = now + intervalMicros;
+            }
+            if (buckets.compareAndSet(slot, entry, tag | arrival)) {
+                return true;
+            }
+        }
+    }
+
+    public int stripes() {
+        return mask + 1;
+    }
+
+    int stripeOf(String recipient) {
+        return stripeOf(hash(recipient));
+    }
+
+    private int stripeOf(long hash) {
+        return (int) hash & mask;
+    }
+
+    private int find(int base, long tag) {
+        for (int slot = base; slot < base + WAYS; slot++) {
+            if ((buckets.get(slot) & ~TIME_MASK) == tag) return slot;
+        }
+        return -1;
+    }
+
+    private int victim(int base) {
+        int victim = base;
+        long earliest = Long.MAX_VALUE;
+        for (int slot = base; slot < base + WAYS; slot++) {
+            long entry = buckets.get(slot);
+            if (entry == 0) return slot;
+            if ((entry & TIME_MASK) < earliest) {
+                earliest = entry & TIME_MASK;
+                victim = slot;
+            }
+        }
+        return victim;
+    }
+
+    private static long tagOf(long hash) {
+        long tag = hash & ~TIME_MASK;
+        return tag == 0 ? 1L << TIME_BITS : tag;
+    }
+
+    private static long hash(String recipient) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < recipient.length(); i++) {
+            h = (h ^ recipient.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
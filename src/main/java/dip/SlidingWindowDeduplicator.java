@@ -0,0 +1,80 @@
+package dip;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+public final class SlidingWindowDeduplicator {
+
+    static final int TIME_BITS = 40;
+
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long windowMillis;
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    public SlidingWindowDeduplicator(int slots, Duration window) {
+        this(slots, window, System::nanoTime);
+    }
+
+    SlidingWindowDeduplicator(int slots, Duration window, LongSupplier nanoClock) {
+        if (slots < 1 || Integer.bitCount(slots) != 1) throw new IllegalArgumentException("slots must be a positive power of two");
+        if (window.isNegative() || window.isZero()) throw new IllegalArgumentException("window must be positive");
+        if (window.toMillis() >= TIME_MASK / 2) throw new IllegalArgumentException("window is too long: " + window);
+        this.slots = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        this.windowMillis = window.toMillis();
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+    }
+
+    public boolean firstSeen(String recipient, String message) {
+        long fingerprint = fingerprint(recipient, message);
+        int slot = (int) fingerprint & mask;
+        long tag = fingerprint & ~TIME_MASK;
+        long now = nowMillis();
+        while (true) {
+            long entry = slots.get(slot);
+            if (entry != 0 && (entry & ~TIME_MASK) == tag && ((now - entry) & TIME_MASK) < windowMillis) {
+                return false;
+            }
+            if (slots.compareAndSet(slot, entry, tag | now)) {
+                return true;
+            }
+        }
+    }
+
+    public void forget(String recipient, String message) {
+        long fingerprint = fingerprint(recipient, message);
+        int slot = (int) fingerprint & mask;
+        long entry = slots.get(slot);
+        if (entry != 0 && (entry & ~TIME_MASK) == (fingerprint & ~TIME_MASK)) {
+            slots.compareAndSet(slot, entry, 0);
+        }
+    }
+
+    private long nowMillis() {
+        return ((nanoClock.getAsLong() - origin) / 1_000_000) & TIME_MASK;
+    }
+
+    static long fingerprint(String recipient, String message) {
+        long h = 0xCBF29CE484222325L;
+        h = mix(h, recipient);
+        h = (h ^ 0x1F) * 0x100000001B3L;
+        h = mix(h, message);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    private static long mix(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return h;
+    }
+}
@@ -1,6 +1,7 @@
 package dip;
 
-public class SmsSender {
+public class SmsSender implements MessageSender {
+    @Override
     public String send(String message) {
         return "sms: " + message;
     }
@@ -0,0 +1,9 @@
+package isp;
+
+public enum Capability {
+    PRINT, SCAN, FAX;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
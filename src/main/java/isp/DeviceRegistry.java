@@ -0,0 +1,114 @@
+package isp;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class DeviceRegistry {
+
+    private static final Capability[] CAPABILITIES = Capability.values();
+
+    private volatile Index index = Index.EMPTY;
+    private final AtomicInteger[] cursors = new AtomicInteger[CAPABILITIES.length];
+
+    public DeviceRegistry() {
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = new AtomicInteger();
+        }
+    }
+
+    public synchronized int register(MultiFunctionDevice device) {
+        if (device == null) throw new IllegalArgumentException("device must not be null");
+        int mask = 0;
+        for (Capability capability : device.capabilities()) {
+            mask |= capability.bit();
+        }
+        Index next = index.with(device, mask);
+        index = next;
+        return next.devices.length - 1;
+    }
+
+    public int size() {
+        return index.devices.length;
+    }
+
+    public MultiFunctionDevice device(int id) {
+        return index.devices[id];
+    }
+
+    public int capabilityMask(int id) {
+        return index.masks[id];
+    }
+
+    public boolean supports(int id, Capability capability) {
+        return (index.masks[id] & capability.bit()) != 0;
+    }
+
+    public boolean anySupports(Capability capability) {
+        return (index.unionMask & capability.bit()) != 0;
+    }
+
+    public List<MultiFunctionDevice> devicesFor(Capability capability) {
+        return List.of(index.byCapability[capability.ordinal()]);
+    }
+
+    public Optional<MultiFunctionDevice> deviceFor(Capability capability) {
+        MultiFunctionDevice[] capable = index.byCapability[capability.ordinal()];
+        if (capable.length == 0) return Optional.empty();
+        if (capable.length == 1) return Optional.of(capable[0]);
+        int next = cursors[capability.ordinal()].getAndIncrement();
+        return Optional.of(capable[Math.floorMod(next, capable.length)]);
+    }
+
+    public Optional<String> execute(Capability capability, String content) {
+        return deviceFor(capability).map(device -> switch (capability) {
+            case PRINT -> device.print(content);
+            case SCAN -> device.scan(content);
+            case FAX -> device.fax(content);
+        });
+    }
+
+    private static final class Index {
+        static final Index EMPTY = new Index(new MultiFunctionDevice[0], new int[0]);
+
+        final MultiFunctionDevice[] devices;
+        final int[] masks;
+        final int unionMask;
+        final MultiFunctionDevice[][] byCapability;
+
+        Index(MultiFunctionDevice[] devices, int[] masks) {
+            this.devices = devices;
+            this.masks = masks;
+            int union = 0;
+            for (int mask : masks) {
+                union |= mask;
+            }
+            this.unionMask = union;
+            this.byCapability = new MultiFunctionDevice[CAPABILITIES.length][];
+            for (Capability capability : CAPABILITIES) {
+                byCapability[capability.ordinal()] = select(devices, masks, capability.bit());
+            }
+        }
+
+        Index with(MultiFunctionDevice device, int mask) {
+            MultiFunctionDevice[] nextDevices = Arrays.copyOf(devices, devices.length + 1);
+            int[] nextMasks = Arrays.copyOf(masks, masks.length + 1);
+            nextDevices[devices.length] = device;
+            nextMasks[masks.length] = mask;
+            return new Index(nextDevices, nextMasks);
+        }
+
+        private static MultiFunctionDevice[] select(MultiFunctionDevice[] devices, int[] masks, int bit) {
+            int count = 0;
+            for (int mask : masks) {
+                if ((mask & bit) != 0) count++;
+            }
+            MultiFunctionDevice[] selected = new MultiFunctionDevice[count];
+            for (int i = 0, j = 0; i < devices.length; i++) {
+                if ((masks[i] & bit) != 0) selected[j++] = devices[i];
+            }
+            return selected;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package isp;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+public class DeviceScheduler implements AutoCloseable {
+
+    private static final Capability[] CAPABILITIES = Capability.values();
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final Worker[] workers;
+    private final Worker[][] capableWorkers;
+    private final AtomicLong state = new AtomicLong();
+
+    public DeviceScheduler(DeviceRegistry registry) {
+        int size = registry.size();
+        this.workers = new Worker[size];
+        for (int id = 0; id < size; id++) {
+            workers[id] = new Worker(id, registry.device(id), registry.capabilityMask(id));
+        }
+        this.capableWorkers = new Worker[CAPABILITIES.length][];
+        for (Capability capability : CAPABILITIES) {
+            capableWorkers[capability.ordinal()] = Arrays.stream(workers)
+                    .filter(worker -> worker.supports(capability))
+                    .toArray(Worker[]::new);
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    public CompletableFuture<String> submit(Capability capability, String content) {
+        Worker[] capable = capableWorkers[capability.ordinal()];
+        if (capable.length == 0) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("no registered device can " + capability));
+        }
+        long current;
+        do {
+            current = state.get();
+            if ((current & CLOSED) != 0) {
+                return CompletableFuture.failedFuture(new IllegalStateException("scheduler is closed"));
+            }
+        } while (!state.compareAndSet(current, current + 1));
+        try {
+            Job job = new Job(capability, content);
+            Worker target = leastLoaded(capable);
+            if (!target.push(job)) {
+                wakeIdle(capable, target);
+            }
+            return job.result;
+        } finally {
+            state.decrementAndGet();
+        }
+    }
+
+    public int pending(int deviceId) {
+        return workers[deviceId].pending.get();
+    }
+
+    public long completed(int deviceId) {
+        return workers[deviceId].completed;
+    }
+
+    public long stolen(int deviceId) {
+        return workers[deviceId].stolen;
+    }
+
+    @Override
+    public void close() {
+        if ((state.getAndUpdate(s -> s | CLOSED) & CLOSED) != 0) return;
+        while (state.get() != CLOSED) {
+            Thread.onSpinWait();
+        }
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        for (Worker worker : workers) {
+            Job job;
+            while ((job = worker.pollOwn()) != null) {
+                job.result.completeExceptionally(new IllegalStateException("scheduler is closed"));
+            }
+        }
+    }
+
+    private static Worker leastLoaded(Worker[] capable) {
+        if (capable.length == 1) return capable[0];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Worker first = capable[random.nextInt(capable.length)];
+        Worker second = capable[random.nextInt(capable.length)];
+        return first.pending.get() <= second.pending.get() ? first : second;
+    }
+
+    private boolean closed() {
+        return state.get() == CLOSED;
+    }
+
+    private static void wakeIdle(Worker[] capable, Worker busy) {
+        for (Worker worker : capable) {
+            if (worker != busy && worker.idle) {
+                LockSupport.unpark(worker.thread);
+                return;
+            }
+        }
+    }
+
+    private static final class Job {
+        final Capability capability;
+        final String content;
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        Job(Capability capability, String content) {
+            this.capability = capability;
+            this.content = content;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final int id;
+        final MultiFunctionDevice device;
+        final int mask;
+        final Thread thread;
+        final AtomicInteger pending = new AtomicInteger();
+        final List<ConcurrentLinkedDeque<Job>> queues = Stream.generate(ConcurrentLinkedDeque<Job>::new)
+                .limit(CAPABILITIES.length)
+                .toList();
+        volatile boolean idle;
+        volatile long completed;
+        volatile long stolen;
+
+        Worker(int id, MultiFunctionDevice device, int mask) {
+            this.id = id;
+            this.device = device;
+            this.mask = mask;
+            this.thread = Thread.ofPlatform().daemon().name("device-" + id + "-" + device.getClass().getSimpleName())
+                    .unstarted(this);
+        }
+
+        boolean supports(Capability capability) {
+            return (mask & capability.bit()) != 0;
+        }
+
+        boolean push(Job job) {
+            pending.incrementAndGet();
+            queues.get(job.capability.ordinal()).addLast(job);
+            if (!idle) return false;
+            LockSupport.unpark(thread);
+            return true;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Job job = pollOwn();
+                if (job == null) {
+                    job = steal();
+                    if (job != null) stolen++;
+                }
+                if (job != null) {
+                    execute(job);
+                    continue;
+                }
+                if (closed()) {
+                    drain();
+                    return;
+                }
+                idle = true;
+                if (!hasWork() && !closed()) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+            }
+        }
+
+        Job pollOwn() {
+            for (ConcurrentLinkedDeque<Job> queue : queues) {
+                Job job = queue.pollFirst();
+                if (job != null) {
+                    pending.decrementAndGet();
+                    return job;
+                }
+            }
+            return null;
+        }
+
+        private boolean hasWork() {
+            if (pending.get() > 0) return true;
+            for (Worker victim : workers) {
+                if (victim == this || victim.pending.get() == 0) continue;
+                for (Capability capability : CAPABILITIES) {
+                    if (supports(capability) && !victim.queues.get(capability.ordinal()).isEmpty()) return true;
+                }
+            }
+            return false;
+        }
+
+        private Job steal() {
+            if (workers.length < 2) return null;
+            int start = ThreadLocalRandom.current().nextInt(workers.length);
+            for (int i = 0; i < workers.length; i++) {
+                Worker victim = workers[(start + i) % workers.length];
+                if (victim == this || victim.pending.get() == 0) continue;
+                for (Capability capability : CAPABILITIES) {
+                    if (!supports(capability)) continue;
+                    Job job = victim.queues.get(capability.ordinal()).pollLast();
+                    if (job != null) {
+                        victim.pending.decrementAndGet();
+                        return job;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void execute(Job job) {
+            try {
+                String result = switch (job.capability) {
+                    case PRINT -> device.print(job.content);
+                    case SCAN -> device.scan(job.content);
+                    case FAX -> device.fax(job.content);
+                };
+                job.result.complete(result);
+            } catch (Throwable e) {
+                job.result.completeExceptionally(e);
+            }
+            completed++;
+        }
+
+        private void drain() {
+            Job job;
+            while ((job = pollOwn()) != null) {
+                execute(job);
+            }
+        }
+    }
+}
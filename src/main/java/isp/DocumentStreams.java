@@ -0,0 +1,137 @@
+package isp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Flow;
+
+final class DocumentStreams {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> CHUNKS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(CHUNK_SIZE));
+
+    private DocumentStreams() {
+    }
+
+    static ByteBuffer prefix(String framing) {
+        byte[] bytes = framing.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+    }
+
+    static long transfer(ByteBuffer prefix, ReadableByteChannel source, WritableByteChannel sink) {
+        try {
+            long written = writeFully(prefix.duplicate(), sink);
+            if (source instanceof FileChannel file) {
+                written += transferFile(file, sink);
+            }
+            ByteBuffer chunk = CHUNKS.get();
+            chunk.clear();
+            while (source.read(chunk) >= 0) {
+                chunk.flip();
+                written += writeFully(chunk, sink);
+                chunk.clear();
+            }
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot stream document", e);
+        }
+    }
+
+    static Flow.Publisher<ByteBuffer> framed(ByteBuffer prefix, Flow.Publisher<ByteBuffer> payload) {
+        if (payload == null) throw new IllegalArgumentException("payload must not be null");
+        return subscriber -> payload.subscribe(new FramingSubscriber(prefix.duplicate(), subscriber));
+    }
+
+    private static long transferFile(FileChannel source, WritableByteChannel sink) throws IOException {
+        long start = source.position();
+        long end = source.size();
+        long position = start;
+        while (position < end) {
+            long transferred = source.transferTo(position, end - position, sink);
+            if (transferred <= 0) break;
+            position += transferred;
+        }
+        source.position(position);
+        return position - start;
+    }
+
+    private static long writeFully(ByteBuffer buffer, WritableByteChannel sink) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += sink.write(buffer);
+        }
+        return written;
+    }
+
+    private static final class FramingSubscriber implements Flow.Subscriber<ByteBuffer>, Flow.Subscription {
+        private final ByteBuffer prefix;
+        private final Flow.Subscriber<? super ByteBuffer> downstream;
+        private Flow.Subscription upstream;
+        private boolean prefixSent;
+        private boolean completePending;
+
+        FramingSubscriber(ByteBuffer prefix, Flow.Subscriber<? super ByteBuffer> downstream) {
+            this.prefix = prefix;
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            downstream.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (!prefixSent) {
+                    completePending = true;
+                    return;
+                }
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                upstream.request(n);
+                return;
+            }
+            synchronized (this) {
+                if (!prefixSent) {
+                    prefixSent = true;
+                    downstream.onNext(prefix);
+                    if (completePending) {
+                        downstream.onComplete();
+                        return;
+                    }
+                    n--;
+                }
+            }
+            if (n > 0) {
+                upstream.request(n);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package isp;
 
+import java.util.Set;
+
 public interface MultiFunctionDevice {
     String print(String content);
     String scan(String content);
     String fax(String content);
+
+    Set<Capability> capabilities();
 }
@@ -1,11 +1,29 @@
 package isp;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Flow;
+
 public class OldPrinter implements MultiFunctionDevice {
+
+    private static final ByteBuffer PRINTING = DocumentStreams.prefix("printing: ");
+
     @Override
     public String print(String content) {
         return "printing: " + content;
     }
 
+    public long print(ReadableByteChannel document, WritableByteChannel output) {
+        return DocumentStreams.transfer(PRINTING, document, output);
+    }
+
+    public Flow.Publisher<ByteBuffer> print(Flow.Publisher<ByteBuffer> document) {
+        return DocumentStreams.framed(PRINTING, document);
+    }
+
     @Override
     public String scan(String content) {
         throw new UnsupportedOperationException("OldPrinter cannot scan");
@@ -15,4 +33,9 @@ public class OldPrinter implements MultiFunctionDevice {
     public String fax(String content) {
         throw new UnsupportedOperationException("OldPrinter cannot fax");
     }
+
+    @Override
+    public Set<Capability> capabilities() {
+        return EnumSet.of(Capability.PRINT);
+    }
 }
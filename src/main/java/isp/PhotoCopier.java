@@ -1,18 +1,50 @@
 package isp;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Flow;
+
 public class PhotoCopier implements MultiFunctionDevice {
+
+    private static final ByteBuffer PRINTING = DocumentStreams.prefix("printing: ");
+    private static final ByteBuffer SCANNING = DocumentStreams.prefix("scanning: ");
+
     @Override
     public String print(String content) {
         return "printing: " + content;
     }
 
+    public long print(ReadableByteChannel document, WritableByteChannel output) {
+        return DocumentStreams.transfer(PRINTING, document, output);
+    }
+
+    public Flow.Publisher<ByteBuffer> print(Flow.Publisher<ByteBuffer> document) {
+        return DocumentStreams.framed(PRINTING, document);
+    }
+
     @Override
     public String scan(String content) {
         return "scanning: " + content;
     }
 
+    public long scan(ReadableByteChannel document, WritableByteChannel output) {
+        return DocumentStreams.transfer(SCANNING, document, output);
+    }
+
+    public Flow.Publisher<ByteBuffer> scan(Flow.Publisher<ByteBuffer> document) {
+        return DocumentStreams.framed(SCANNING, document);
+    }
+
     @Override
     public String fax(String content) {
         throw new UnsupportedOperationException("PhotoCopier cannot fax");
     }
+
+    @Override
+    public Set<Capability> capabilities() {
+        return EnumSet.of(Capability.PRINT, Capability.SCAN);
+    }
 }
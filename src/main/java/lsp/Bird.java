@@ -1,7 +1,11 @@
 package lsp;
 
-public class Bird {
-    public String fly() {
-        return "flap";
+public sealed interface Bird permits Sparrow, Ostrich {
+
+    default String move() {
+        return switch (this) {
+            case Sparrow sparrow -> sparrow.fly();
+            case Ostrich ostrich -> ostrich.walk();
+        };
     }
 }
@@ -0,0 +1,56 @@
+package lsp;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public final class BirdBatches {
+
+    private final Sparrow[] sparrows;
+    private final Ostrich[] ostriches;
+
+    private BirdBatches(Sparrow[] sparrows, Ostrich[] ostriches) {
+        this.sparrows = sparrows;
+        this.ostriches = ostriches;
+    }
+
+    public static BirdBatches of(Collection<? extends Bird> birds) {
+        int sparrowCount = 0;
+        for (Bird bird : birds) {
+            if (bird instanceof Sparrow) sparrowCount++;
+        }
+        Sparrow[] sparrows = new Sparrow[sparrowCount];
+        Ostrich[] ostriches = new Ostrich[birds.size() - sparrowCount];
+        int s = 0;
+        int o = 0;
+        for (Bird bird : birds) {
+            switch (bird) {
+                case Sparrow sparrow -> sparrows[s++] = sparrow;
+                case Ostrich ostrich -> ostriches[o++] = ostrich;
+            }
+        }
+        return new BirdBatches(sparrows, ostriches);
+    }
+
+    public int size() {
+        return sparrows.length + ostriches.length;
+    }
+
+    public int flyers() {
+        return sparrows.length;
+    }
+
+    public void fly(Consumer<? super String> out) {
+        for (Sparrow sparrow : sparrows) {
+            out.accept(sparrow.fly());
+        }
+    }
+
+    public void move(Consumer<? super String> out) {
+        for (Sparrow sparrow : sparrows) {
+            out.accept(sparrow.fly());
+        }
+        for (Ostrich ostrich : ostriches) {
+            out.accept(ostrich.walk());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package lsp;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public final class Flock {
+
+    public static final byte KIND_SPARROW = 1;
+    public static final byte KIND_OSTRICH = 2;
+
+    public static final int FLIES = 1;
+    public static final int WALKS = 2;
+
+    static final int PARALLEL_BLOCK = 16 * 1024;
+
+    private static final float FLIGHT_SPEED = 12.0f;
+    private static final float WALKING_SPEED = 4.0f;
+    private static final float CRUISING_ALTITUDE = 30.0f;
+    private static final float CLIMB_RATE = 0.5f;
+
+    private static final float[] SPEED = {0.0f, FLIGHT_SPEED, WALKING_SPEED, FLIGHT_SPEED};
+    private static final float[] TARGET_ALTITUDE = {0.0f, CRUISING_ALTITUDE, 0.0f, CRUISING_ALTITUDE};
+
+    private byte[] kinds;
+    private byte[] capabilities;
+    private float[] x;
+    private float[] y;
+    private float[] altitude;
+    private float[] headingX;
+    private float[] headingY;
+    private int size;
+
+    public Flock(int initialCapacity) {
+        if (initialCapacity < 1) throw new IllegalArgumentException("initialCapacity must be positive");
+        kinds = new byte[initialCapacity];
+        capabilities = new byte[initialCapacity];
+        x = new float[initialCapacity];
+        y = new float[initialCapacity];
+        altitude = new float[initialCapacity];
+        headingX = new float[initialCapacity];
+        headingY = new float[initialCapacity];
+    }
+
+    public int add(Bird bird, float startX, float startY, float heading) {
+        if (bird == null) throw new IllegalArgumentException("bird must not be null");
+        if (size == kinds.length) {
+            grow();
+        }
+        int index = size;
+        kinds[index] = kindOf(bird);
+        capabilities[index] = (byte) capabilitiesOf(bird);
+        x[index] = startX;
+        y[index] = startY;
+        headingX[index] = (float) Math.cos(heading);
+        headingY[index] = (float) Math.sin(heading);
+        size = index + 1;
+        return index;
+    }
+
+    public void tick(float seconds) {
+        move(0, size, seconds);
+    }
+
+    public void tickParallel(float seconds) {
+        int count = size;
+        int blocks = (count + PARALLEL_BLOCK - 1) / PARALLEL_BLOCK;
+        IntStream.range(0, blocks).parallel()
+                .forEach(block -> move(block * PARALLEL_BLOCK, Math.min(count, (block + 1) * PARALLEL_BLOCK), seconds));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte kind(int index) {
+        checkIndex(index);
+        return kinds[index];
+    }
+
+    public boolean flies(int index) {
+        checkIndex(index);
+        return (capabilities[index] & FLIES) != 0;
+    }
+
+    public boolean walks(int index) {
+        checkIndex(index);
+        return (capabilities[index] & WALKS) != 0;
+    }
+
+    public float x(int index) {
+        checkIndex(index);
+        return x[index];
+    }
+
+    public float y(int index) {
+        checkIndex(index);
+        return y[index];
+    }
+
+    public float altitude(int index) {
+        checkIndex(index);
+        return altitude[index];
+    }
+
+    public int count(int capabilityMask) {
+        int matches = 0;
+        for (int i = 0; i < size; i++) {
+            if ((capabilities[i] & capabilityMask) == capabilityMask) matches++;
+        }
+        return matches;
+    }
+
+    private void move(int from, int to, float seconds) {
+        byte[] caps = capabilities;
+        float[] px = x;
+        float[] py = y;
+        float[] pz = altitude;
+        float[] hx = headingX;
+        float[] hy = headingY;
+        float climb = Math.min(1.0f, CLIMB_RATE * seconds);
+        for (int i = from; i < to; i++) {
+            int c = caps[i] & (FLIES | WALKS);
+            float distance = SPEED[c] * seconds;
+            px[i] += hx[i] * distance;
+            py[i] += hy[i] * distance;
+            pz[i] += (TARGET_ALTITUDE[c] - pz[i]) * climb;
+        }
+    }
+
+    private void grow() {
+        int capacity = kinds.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        capabilities = Arrays.copyOf(capabilities, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        altitude = Arrays.copyOf(altitude, capacity);
+        headingX = Arrays.copyOf(headingX, capacity);
+        headingY = Arrays.copyOf(headingY, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("bird " + index + " outside [0, " + size + ")");
+        }
+    }
+
+    private static byte kindOf(Bird bird) {
+        return switch (bird) {
+            case Sparrow sparrow -> KIND_SPARROW;
+            case Ostrich ostrich -> KIND_OSTRICH;
+        };
+    }
+
+    private static int capabilitiesOf(Bird bird) {
+        int mask = 0;
+        if (bird instanceof Flyable) mask |= FLIES;
+        if (bird instanceof Walkable) mask |= WALKS;
+        return mask;
+    }
+}
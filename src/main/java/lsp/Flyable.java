@@ -0,0 +1,5 @@
+package lsp;
+
+public interface Flyable {
+    String fly();
+}
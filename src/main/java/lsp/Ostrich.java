@@ -1,8 +1,8 @@
 package lsp;
 
-public class Ostrich extends Bird {
+public final class Ostrich implements Bird, Walkable {
     @Override
-    public String fly() {
-        throw new UnsupportedOperationException("Ostrich can't fly");
+    public String walk() {
+        return "stride";
     }
 }
@@ -1,8 +1,13 @@
 package lsp;
 
-public class Sparrow extends Bird {
+public final class Sparrow implements Bird, Flyable, Walkable {
     @Override
     public String fly() {
         return "flap";
     }
+
+    @Override
+    public String walk() {
+        return "hop";
+    }
 }
@@ -0,0 +1,26 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("kata.Call")
+@Label("Instrumented Call")
+@Category("Kata")
+@Description("A call through an instrumented kata component")
+@StackTrace(false)
+class CallEvent extends jdk.jfr.Event {
+
+    @Label("Timer")
+    String timer;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    @Label("Failed")
+    boolean failed;
+}
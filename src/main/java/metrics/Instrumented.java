@@ -0,0 +1,154 @@
+package metrics;
+
+import dip.ChannelRegistry;
+import dip.NotificationService;
+import isp.Capability;
+import isp.MultiFunctionDevice;
+import money.Money;
+import ocp.CustomerTier;
+import ocp.DiscountCalculator;
+import ocp.TierRegistry;
+import srp.Invoice;
+import srp.InvoiceStore;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+public final class Instrumented {
+
+    private Instrumented() {
+    }
+
+    public static DiscountCalculator discountCalculator(TierRegistry tiers, MetricsRegistry metrics) {
+        return new TimedDiscountCalculator(tiers, metrics.timer("ocp.DiscountCalculator.computeDiscount"));
+    }
+
+    public static NotificationService notificationService(ChannelRegistry channels, MetricsRegistry metrics) {
+        return new TimedNotificationService(channels, metrics.timer("dip.NotificationService.notifyUser"));
+    }
+
+    public static InvoiceStore invoiceStore(Path path, int syncEvery, Duration syncInterval, MetricsRegistry metrics) {
+        return new TimedInvoiceStore(path, syncEvery, syncInterval, metrics);
+    }
+
+    public static MultiFunctionDevice device(MultiFunctionDevice device, MetricsRegistry metrics) {
+        if (device == null) throw new IllegalArgumentException("device must not be null");
+        String prefix = "isp." + device.getClass().getSimpleName() + ".";
+        return new TimedDevice(device, metrics.timer(prefix + "print"), metrics.timer(prefix + "scan"),
+                metrics.timer(prefix + "fax"));
+    }
+
+    private static final class TimedDiscountCalculator extends DiscountCalculator {
+        private final Timer timer;
+
+        TimedDiscountCalculator(TierRegistry tiers, Timer timer) {
+            super(tiers);
+            this.timer = timer;
+        }
+
+        @Override
+        public double computeDiscount(String customerType, double amount) {
+            return timer.time(() -> super.computeDiscount(customerType, amount));
+        }
+
+        @Override
+        public double computeDiscount(CustomerTier tier, double amount) {
+            return timer.time(() -> super.computeDiscount(tier, amount));
+        }
+
+        @Override
+        public Money computeDiscount(String customerType, Money amount) {
+            return timer.time(() -> super.computeDiscount(customerType, amount));
+        }
+
+        @Override
+        public Money computeDiscount(CustomerTier tier, Money amount) {
+            return timer.time(() -> super.computeDiscount(tier, amount));
+        }
+    }
+
+    private static final class TimedNotificationService extends NotificationService {
+        private final Timer timer;
+
+        TimedNotificationService(ChannelRegistry channels, Timer timer) {
+            super(channels);
+            this.timer = timer;
+        }
+
+        @Override
+        public String notifyUser(String channel, String message) {
+            return timer.time(() -> super.notifyUser(channel, message));
+        }
+    }
+
+    private static final class TimedInvoiceStore extends InvoiceStore {
+        private final Timer append;
+        private final Timer appendAll;
+        private final Timer flush;
+        private final Timer sync;
+
+        TimedInvoiceStore(Path path, int syncEvery, Duration syncInterval, MetricsRegistry metrics) {
+            super(path, syncEvery, syncInterval);
+            this.append = metrics.timer("srp.InvoiceStore.append");
+            this.appendAll = metrics.timer("srp.InvoiceStore.appendAll");
+            this.flush = metrics.timer("srp.InvoiceStore.flush");
+            this.sync = metrics.timer("srp.InvoiceStore.sync");
+        }
+
+        @Override
+        public void append(Invoice invoice) {
+            append.time(() -> super.append(invoice));
+        }
+
+        @Override
+        public void appendAll(List<Invoice> invoices) {
+            appendAll.time(() -> super.appendAll(invoices));
+        }
+
+        @Override
+        public void flush() {
+            flush.time(super::flush);
+        }
+
+        @Override
+        public void sync() {
+            sync.time(super::sync);
+        }
+    }
+
+    private static final class TimedDevice implements MultiFunctionDevice {
+        private final MultiFunctionDevice device;
+        private final Timer print;
+        private final Timer scan;
+        private final Timer fax;
+
+        TimedDevice(MultiFunctionDevice device, Timer print, Timer scan, Timer fax) {
+            this.device = device;
+            this.print = print;
+            this.scan = scan;
+            this.fax = fax;
+        }
+
+        @Override
+        public String print(String content) {
+            return print.time(() -> device.print(content));
+        }
+
+        @Override
+        public String scan(String content) {
+            return scan.time(() -> device.scan(content));
+        }
+
+        @Override
+        public String fax(String content) {
+            return fax.time(() -> device.fax(content));
+        }
+
+        @Override
+        public Set<Capability> capabilities() {
+            return device.capabilities();
+        }
+    }
+}
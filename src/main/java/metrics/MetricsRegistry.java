@@ -0,0 +1,145 @@
+package metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class MetricsRegistry implements MetricsRegistryMXBean {
+
+    public static final int DEFAULT_SAMPLE_RATE = 8;
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry(Boolean.getBoolean("kata.metrics.enabled"),
+            Integer.getInteger("kata.metrics.sampleRate", DEFAULT_SAMPLE_RATE));
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final int sampleMask;
+    private volatile boolean enabled;
+    private volatile String jmxDomain;
+
+    public MetricsRegistry(boolean enabled) {
+        this(enabled, DEFAULT_SAMPLE_RATE);
+    }
+
+    public MetricsRegistry(boolean enabled, int sampleRate) {
+        if (sampleRate < 1 || Integer.bitCount(sampleRate) != 1) {
+            throw new IllegalArgumentException("sampleRate must be a positive power of two");
+        }
+        this.enabled = enabled;
+        this.sampleMask = sampleRate - 1;
+    }
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public int getTimerCount() {
+        return timers.size();
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleMask + 1;
+    }
+
+    int sampleMask() {
+        return sampleMask;
+    }
+
+    public Timer timer(String name) {
+        if (name == null || name.isEmpty()) throw new IllegalArgumentException("timer name must not be empty");
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(name, key -> exposed(new Timer(key, this)));
+        }
+        if (timer.jmxDomain != jmxDomain) {
+            timer = timers.computeIfPresent(name, (key, existing) -> exposed(existing));
+        }
+        return timer;
+    }
+
+    public Map<String, Timer.Snapshot> snapshot() {
+        Map<String, Timer.Snapshot> snapshots = new TreeMap<>();
+        for (Timer timer : timers.values()) {
+            snapshots.put(timer.name(), timer.snapshot());
+        }
+        return snapshots;
+    }
+
+    public synchronized void registerJmx(String domain) {
+        if (domain == null || domain.isEmpty()) throw new IllegalArgumentException("JMX domain must not be empty");
+        if (jmxDomain != null) throw new IllegalStateException("already registered under " + jmxDomain);
+        registerBean(new ObjectNameSpec(domain, "Registry", "registry"), this);
+        jmxDomain = domain;
+        for (String name : timers.keySet()) {
+            timers.computeIfPresent(name, (key, timer) -> exposed(timer));
+        }
+    }
+
+    public synchronized void unregisterJmx() {
+        String domain = jmxDomain;
+        if (domain == null) return;
+        jmxDomain = null;
+        for (String name : timers.keySet()) {
+            timers.computeIfPresent(name, (key, timer) -> exposed(timer));
+        }
+        unregisterBean(new ObjectNameSpec(domain, "Registry", "registry"));
+    }
+
+    private Timer exposed(Timer timer) {
+        String domain = jmxDomain;
+        if (timer.jmxDomain == domain) return timer;
+        if (timer.jmxDomain != null) {
+            unregisterBean(new ObjectNameSpec(timer.jmxDomain, "Timer", timer.name()));
+        }
+        if (domain != null) {
+            registerBean(new ObjectNameSpec(domain, "Timer", timer.name()), timer);
+        }
+        timer.jmxDomain = domain;
+        return timer;
+    }
+
+    private static void registerBean(ObjectNameSpec spec, Object bean) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(bean, spec.toObjectName());
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("MBean already registered: " + spec, e);
+        } catch (JMException e) {
+            throw new IllegalStateException("cannot register MBean " + spec, e);
+        }
+    }
+
+    private static void unregisterBean(ObjectNameSpec spec) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = spec.toObjectName();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("cannot unregister MBean " + spec, e);
+        }
+    }
+
+    private record ObjectNameSpec(String domain, String type, String name) {
+        ObjectName toObjectName() throws JMException {
+            return new ObjectName(domain + ":type=" + type + ",name=" + ObjectName.quote(name));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package metrics;
+
+public interface MetricsRegistryMXBean {
+    boolean isEnabled();
+    void setEnabled(boolean enabled);
+    int getTimerCount();
+    int getSampleRate();
+}
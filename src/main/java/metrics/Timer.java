@@ -0,0 +1,161 @@
+package metrics;
+
+import jdk.jfr.EventType;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+public final class Timer implements TimerMXBean {
+
+    static final long DISABLED = Long.MIN_VALUE;
+    static final long UNTIMED = Long.MIN_VALUE + 1;
+
+    private static final EventType CALL_EVENT = EventType.getEventType(CallEvent.class);
+
+    public record Snapshot(String name, long calls, long errors, double meanNanos,
+                           long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos, long maxNanos) {}
+
+    private final String name;
+    private final MetricsRegistry registry;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    volatile String jmxDomain;
+
+    Timer(String name, MetricsRegistry registry) {
+        this.name = name;
+        this.registry = registry;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long start() {
+        if (!registry.isEnabled()) return DISABLED;
+        if ((ThreadLocalRandom.current().nextInt() & registry.sampleMask()) == 0 || CALL_EVENT.isEnabled()) {
+            return System.nanoTime();
+        }
+        return UNTIMED;
+    }
+
+    public void stop(long start) {
+        finish(start, false);
+    }
+
+    public void fail(long start) {
+        finish(start, true);
+    }
+
+    public <T> T time(Supplier<T> call) {
+        long start = start();
+        T result;
+        try {
+            result = call.get();
+        } catch (Throwable e) {
+            fail(start);
+            throw e;
+        }
+        stop(start);
+        return result;
+    }
+
+    public double time(DoubleSupplier call) {
+        long start = start();
+        double result;
+        try {
+            result = call.getAsDouble();
+        } catch (Throwable e) {
+            fail(start);
+            throw e;
+        }
+        stop(start);
+        return result;
+    }
+
+    public void time(Runnable call) {
+        long start = start();
+        try {
+            call.run();
+        } catch (Throwable e) {
+            fail(start);
+            throw e;
+        }
+        stop(start);
+    }
+
+    public void record(long nanos, boolean failed) {
+        calls.increment();
+        if (failed) errors.increment();
+        sample(nanos, failed);
+    }
+
+    private void finish(long start, boolean failed) {
+        if (start == DISABLED) return;
+        calls.increment();
+        if (failed) errors.increment();
+        if (start != UNTIMED) {
+            sample(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void sample(long nanos, boolean failed) {
+        sampled.increment();
+        totalNanos.add(nanos);
+        latencies.record(nanos);
+        if (CALL_EVENT.isEnabled()) {
+            CallEvent event = new CallEvent();
+            event.timer = name;
+            event.latency = nanos;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    public Snapshot snapshot() {
+        LatencyHistogram.Snapshot histogram = latencies.snapshot();
+        long samples = sampled.sum();
+        return new Snapshot(name, calls.sum(), errors.sum(), samples == 0 ? 0.0 : (double) totalNanos.sum() / samples,
+                histogram.percentile(0.50), histogram.percentile(0.90), histogram.percentile(0.99),
+                histogram.percentile(0.999), histogram.max());
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        return snapshot().meanNanos();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return latencies.snapshot().percentile(0.50);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return latencies.snapshot().percentile(0.99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return latencies.snapshot().percentile(0.999);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return latencies.snapshot().max();
+    }
+}
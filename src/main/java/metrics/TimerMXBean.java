@@ -0,0 +1,11 @@
+package metrics;
+
+public interface TimerMXBean {
+    long getCalls();
+    long getErrors();
+    double getMeanNanos();
+    long getP50Nanos();
+    long getP99Nanos();
+    long getP999Nanos();
+    long getMaxNanos();
+}
@@ -0,0 +1,54 @@
+package money;
+
+import java.math.RoundingMode;
+
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money parse(CharSequence text) {
+        return ofMinor(MoneyMath.parse(text));
+    }
+
+    public static Money fromDouble(double amount, RoundingMode rounding) {
+        return ofMinor(MoneyMath.fromDouble(amount, rounding));
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(MoneyMath.add(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(MoneyMath.subtract(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long factor) {
+        return ofMinor(MoneyMath.multiply(minorUnits, factor));
+    }
+
+    public Money applyRate(long ratePpm, RoundingMode rounding) {
+        return ofMinor(MoneyMath.applyRate(minorUnits, ratePpm, rounding));
+    }
+
+    public double toDouble() {
+        return MoneyMath.toDouble(minorUnits);
+    }
+
+    public StringBuilder appendTo(StringBuilder out) {
+        return MoneyMath.appendTo(out, minorUnits);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(24)).toString();
+    }
+}
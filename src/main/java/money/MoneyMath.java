@@ -0,0 +1,136 @@
+package money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class MoneyMath {
+
+    public static final int SCALE = 2;
+    public static final long MINOR_PER_MAJOR = 100;
+    public static final long PPM = 1_000_000;
+
+    private MoneyMath() {
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long multiply(long minorUnits, long factor) {
+        return Math.multiplyExact(minorUnits, factor);
+    }
+
+    public static long sum(long[] minorUnits) {
+        long total = 0;
+        for (long value : minorUnits) {
+            total = Math.addExact(total, value);
+        }
+        return total;
+    }
+
+    public static long ratePpm(double rate) {
+        if (!Double.isFinite(rate)) throw new IllegalArgumentException("rate must be finite: " + rate);
+        return Math.round(rate * PPM);
+    }
+
+    public static long applyRate(long minorUnits, long ratePpm, RoundingMode rounding) {
+        if (ratePpm == 0 || minorUnits == 0) return 0;
+        long whole = minorUnits / PPM;
+        long part = minorUnits % PPM;
+        long product = part * ratePpm;
+        long quotient = Math.addExact(Math.multiplyExact(whole, ratePpm), product / PPM);
+        return round(quotient, product % PPM, PPM, rounding);
+    }
+
+    public static void applyRates(byte[] codes, long[] ratesPpm, long[] amounts, long[] out,
+                                  int from, int to, RoundingMode rounding) {
+        for (int i = from; i < to; i++) {
+            int code = codes[i];
+            long rate = code >= 0 && code < ratesPpm.length ? ratesPpm[code] : 0;
+            out[i] = applyRate(amounts[i], rate, rounding);
+        }
+    }
+
+    public static long divide(long dividend, long divisor, RoundingMode rounding) {
+        if (divisor == 0) throw new ArithmeticException("division by zero");
+        if (divisor < 0) {
+            dividend = Math.negateExact(dividend);
+            divisor = -divisor;
+        }
+        return round(dividend / divisor, dividend % divisor, divisor, rounding);
+    }
+
+    public static long fromDouble(double amount, RoundingMode rounding) {
+        if (!Double.isFinite(amount)) throw new IllegalArgumentException("amount must be finite: " + amount);
+        return BigDecimal.valueOf(amount).setScale(SCALE, rounding).unscaledValue().longValueExact();
+    }
+
+    public static double toDouble(long minorUnits) {
+        return (double) minorUnits / MINOR_PER_MAJOR;
+    }
+
+    public static long parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        long major = 0;
+        int digits = 0;
+        for (; i < length && text.charAt(i) != '.'; i++, digits++) {
+            major = Math.addExact(Math.multiplyExact(major, 10), digit(text, i));
+        }
+        long minor = 0;
+        int fraction = 0;
+        if (i < length) {
+            for (i++; i < length; i++, fraction++) {
+                if (fraction == SCALE) throw new NumberFormatException("more than " + SCALE + " decimals: " + text);
+                minor = minor * 10 + digit(text, i);
+            }
+        }
+        if (digits == 0 && fraction == 0) throw new NumberFormatException("not an amount: '" + text + "'");
+        for (; fraction < SCALE; fraction++) {
+            minor *= 10;
+        }
+        long value = Math.addExact(Math.multiplyExact(major, MINOR_PER_MAJOR), minor);
+        return negative ? -value : value;
+    }
+
+    public static StringBuilder appendTo(StringBuilder out, long minorUnits) {
+        long major = minorUnits / MINOR_PER_MAJOR;
+        long minor = Math.abs(minorUnits % MINOR_PER_MAJOR);
+        if (minorUnits < 0 && major == 0) out.append('-');
+        out.append(major).append('.');
+        if (minor < 10) out.append('0');
+        return out.append(minor);
+    }
+
+    private static long round(long quotient, long remainder, long divisor, RoundingMode rounding) {
+        if (remainder == 0) return quotient;
+        int sign = remainder < 0 ? -1 : 1;
+        long twice = Math.abs(remainder) * 2;
+        boolean awayFromZero = switch (rounding) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> twice >= divisor;
+            case HALF_DOWN -> twice > divisor;
+            case HALF_EVEN -> twice > divisor || (twice == divisor && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("rounding necessary");
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') throw new NumberFormatException("not an amount: '" + text + "'");
+        return c - '0';
+    }
+}
@@ -0,0 +1,169 @@
+package ocp;
+
+import money.MoneyMath;
+
+import java.math.RoundingMode;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BatchDiscountCalculator {
+
+    private static final TierRegistry DEFAULTS = TierRegistry.withDefaults();
+
+    public static final byte UNKNOWN = (byte) CustomerTier.UNKNOWN.code();
+    public static final byte STANDARD = defaultCode("STANDARD");
+    public static final byte PREMIUM = defaultCode("PREMIUM");
+    public static final byte VIP = defaultCode("VIP");
+
+    static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 14;
+
+    private final TierRegistry registry;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public BatchDiscountCalculator() {
+        this(TierRegistry.withDefaults());
+    }
+
+    public BatchDiscountCalculator(TierRegistry registry) {
+        this(registry, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public BatchDiscountCalculator(TierRegistry registry, ForkJoinPool pool, int parallelThreshold) {
+        if (registry == null) throw new IllegalArgumentException("registry must not be null");
+        if (pool == null) throw new IllegalArgumentException("pool must not be null");
+        if (parallelThreshold < 1) throw new IllegalArgumentException("parallelThreshold must be positive");
+        this.registry = registry;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public byte tierCode(String customerType) {
+        return (byte) registry.resolve(customerType).code();
+    }
+
+    public void computeDiscounts(byte[] tiers, double[] amounts, double[] out) {
+        checkLengths(tiers.length, amounts.length, out.length);
+        run(new BatchTask(registry.rates(), tiers, amounts, null, out, 0, tiers.length));
+    }
+
+    public void computeDiscounts(byte[] tiers, DoubleBuffer amounts, double[] out) {
+        checkLengths(tiers.length, amounts.remaining(), out.length);
+        run(new BatchTask(registry.rates(), tiers, null, amounts, out, 0, tiers.length));
+    }
+
+    public void computeDiscounts(byte[] tiers, long[] amountsMinor, long[] outMinor) {
+        computeDiscounts(tiers, amountsMinor, outMinor, RoundingMode.HALF_EVEN);
+    }
+
+    public void computeDiscounts(byte[] tiers, long[] amountsMinor, long[] outMinor, RoundingMode rounding) {
+        checkLengths(tiers.length, amountsMinor.length, outMinor.length);
+        MinorUnitsTask task = new MinorUnitsTask(registry.ratesPpm(), tiers, amountsMinor, outMinor, rounding,
+                0, tiers.length);
+        if (tiers.length <= parallelThreshold) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    private void run(BatchTask task) {
+        if (task.to - task.from <= parallelThreshold) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    private static void checkLengths(int tiers, int amounts, int out) {
+        if (tiers != amounts || tiers != out) {
+            throw new IllegalArgumentException(
+                    "batch length mismatch: tiers=" + tiers + ", amounts=" + amounts + ", out=" + out);
+        }
+    }
+
+    private static byte defaultCode(String name) {
+        return (byte) DEFAULTS.resolve(name).code();
+    }
+
+    private static double rate(double[] rates, byte code) {
+        return code >= 0 && code < rates.length ? rates[code] : 0.0;
+    }
+
+    private final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] rates;
+        private final byte[] tiers;
+        private final double[] amounts;
+        private final transient DoubleBuffer buffer;
+        private final double[] out;
+        private final int from;
+        private final int to;
+
+        BatchTask(double[] rates, byte[] tiers, double[] amounts, DoubleBuffer buffer, double[] out, int from, int to) {
+            this.rates = rates;
+            this.tiers = tiers;
+            this.amounts = amounts;
+            this.buffer = buffer;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > parallelThreshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(rates, tiers, amounts, buffer, out, from, mid),
+                        new BatchTask(rates, tiers, amounts, buffer, out, mid, to));
+            } else if (amounts != null) {
+                for (int i = from; i < to; i++) {
+                    double rate = rate(rates, tiers[i]);
+                    out[i] = rate == 0.0 ? 0.0 : amounts[i] * rate;
+                }
+            } else {
+                int base = buffer.position();
+                for (int i = from; i < to; i++) {
+                    double rate = rate(rates, tiers[i]);
+                    out[i] = rate == 0.0 ? 0.0 : buffer.get(base + i) * rate;
+                }
+            }
+        }
+    }
+
+    private final class MinorUnitsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] ratesPpm;
+        private final byte[] tiers;
+        private final long[] amounts;
+        private final long[] out;
+        private final RoundingMode rounding;
+        private final int from;
+        private final int to;
+
+        MinorUnitsTask(long[] ratesPpm, byte[] tiers, long[] amounts, long[] out, RoundingMode rounding,
+                       int from, int to) {
+            this.ratesPpm = ratesPpm;
+            this.tiers = tiers;
+            this.amounts = amounts;
+            this.out = out;
+            this.rounding = rounding;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > parallelThreshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new MinorUnitsTask(ratesPpm, tiers, amounts, out, rounding, from, mid),
+                        new MinorUnitsTask(ratesPpm, tiers, amounts, out, rounding, mid, to));
+            } else {
+                MoneyMath.applyRates(tiers, ratesPpm, amounts, out, from, to, rounding);
+            }
+        }
+    }
+}
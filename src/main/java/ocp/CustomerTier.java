@@ -0,0 +1,60 @@
+package ocp;
+
+import money.Money;
+import money.MoneyMath;
+
+import java.math.RoundingMode;
+
+public final class CustomerTier {
+
+    public static final CustomerTier UNKNOWN = new CustomerTier("UNKNOWN", -1, 0.0);
+
+    private final String name;
+    private final int code;
+    private final double rate;
+    private final long ratePpm;
+
+    CustomerTier(String name, int code, double rate) {
+        this.name = name;
+        this.code = code;
+        this.rate = rate;
+        this.ratePpm = MoneyMath.ratePpm(rate);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public double rate() {
+        return rate;
+    }
+
+    public long ratePpm() {
+        return ratePpm;
+    }
+
+    public double apply(double amount) {
+        return rate == 0.0 ? 0.0 : amount * rate;
+    }
+
+    public Money apply(Money amount) {
+        return apply(amount, RoundingMode.HALF_EVEN);
+    }
+
+    public Money apply(Money amount, RoundingMode rounding) {
+        return ratePpm == 0 ? Money.ZERO : amount.applyRate(ratePpm, rounding);
+    }
+
+    public long applyMinor(long amountMinor, RoundingMode rounding) {
+        return MoneyMath.applyRate(amountMinor, ratePpm, rounding);
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + rate + ")";
+    }
+}
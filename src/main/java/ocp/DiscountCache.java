@@ -0,0 +1,227 @@
+package ocp;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+public final class DiscountCache {
+
+    static final int WAYS = 8;
+    static final int MAX_SEGMENTS = 16;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private static final long MISS = 0x7FF0000000000001L;
+
+    @FunctionalInterface
+    public interface Pricing {
+        double discount(CustomerTier tier, double amount);
+    }
+
+    public record Stats(long hits, long misses, long evictions) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    private final TierRegistry registry;
+    private final Pricing pricing;
+    private final Segment[] segments;
+    private final int setMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public DiscountCache(TierRegistry registry, int capacity) {
+        this(registry, capacity, new DiscountCalculator(registry)::computeDiscount);
+    }
+
+    public DiscountCache(TierRegistry registry, int capacity, Pricing pricing) {
+        if (registry == null) throw new IllegalArgumentException("registry must not be null");
+        if (pricing == null) throw new IllegalArgumentException("pricing must not be null");
+        if (capacity < WAYS) throw new IllegalArgumentException("capacity must be at least " + WAYS);
+        if (capacity > MAX_CAPACITY) throw new IllegalArgumentException("capacity must be at most " + MAX_CAPACITY);
+        int slots = Integer.highestOneBit(capacity - 1) << 1;
+        int segmentCount = Math.min(MAX_SEGMENTS, slots / WAYS);
+        int setsPerSegment = slots / WAYS / segmentCount;
+        this.registry = registry;
+        this.pricing = pricing;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(setsPerSegment);
+        }
+        this.setMask = setsPerSegment - 1;
+    }
+
+    public double computeDiscount(String customerType, double amount) {
+        return computeDiscount(registry.resolve(customerType), amount);
+    }
+
+    public double computeDiscount(CustomerTier handle, double amount) {
+        long version = registry.version();
+        CustomerTier tier = registry.current(handle);
+        int code = tier.code();
+        long bits = Double.doubleToRawLongBits(amount);
+        long hash = hash(code, bits);
+        Segment segment = segments[(int) (hash >>> 32) & (segments.length - 1)];
+        int set = (int) hash & setMask;
+        long cached = segment.find(set, code, bits, version);
+        if (cached != MISS) {
+            hits.increment();
+            return Double.longBitsToDouble(cached);
+        }
+        misses.increment();
+        double discount = pricing.discount(tier, amount);
+        if (segment.store(set, code, bits, version, discount)) {
+            evictions.increment();
+        }
+        return discount;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    public int capacity() {
+        return segments.length * segments[0].codes.length;
+    }
+
+    public int size() {
+        long version = registry.version();
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size(version);
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private static long hash(int code, long bits) {
+        long h = bits ^ ((long) code * 0x9E3779B97F4A7C15L);
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static final class Segment {
+        final StampedLock lock = new StampedLock();
+        final int[] codes;
+        final long[] amounts;
+        final long[] versions;
+        final long[] values;
+        final boolean[] used;
+        final boolean[] referenced;
+        final byte[] hands;
+
+        Segment(int sets) {
+            int slots = sets * WAYS;
+            codes = new int[slots];
+            amounts = new long[slots];
+            versions = new long[slots];
+            values = new long[slots];
+            used = new boolean[slots];
+            referenced = new boolean[slots];
+            hands = new byte[sets];
+        }
+
+        long find(int set, int code, long bits, long version) {
+            long stamp = lock.tryOptimisticRead();
+            int slot = scan(set, code, bits, version);
+            long value = slot < 0 ? MISS : values[slot];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    slot = scan(set, code, bits, version);
+                    value = slot < 0 ? MISS : values[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (slot >= 0 && !referenced[slot]) {
+                // Benign race: a lost or stale mark only changes which entry the clock evicts next.
+                referenced[slot] = true;
+            }
+            return value;
+        }
+
+        boolean store(int set, int code, long bits, long version, double value) {
+            long stamp = lock.writeLock();
+            try {
+                int base = set * WAYS;
+                int slot = -1;
+                for (int i = base; i < base + WAYS; i++) {
+                    if (!used[i] || versions[i] != version) {
+                        slot = i;
+                        break;
+                    }
+                    if (codes[i] == code && amounts[i] == bits) {
+                        values[i] = Double.doubleToLongBits(value);
+                        return false;
+                    }
+                }
+                boolean evicted = slot < 0;
+                if (evicted) {
+                    slot = victim(set);
+                }
+                codes[slot] = code;
+                amounts[slot] = bits;
+                versions[slot] = version;
+                values[slot] = Double.doubleToLongBits(value);
+                referenced[slot] = false;
+                used[slot] = true;
+                return evicted;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size(long version) {
+            long stamp = lock.readLock();
+            try {
+                int size = 0;
+                for (int i = 0; i < used.length; i++) {
+                    if (used[i] && versions[i] == version) size++;
+                }
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(used, false);
+                Arrays.fill(referenced, false);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int scan(int set, int code, long bits, long version) {
+            int base = set * WAYS;
+            for (int i = base; i < base + WAYS; i++) {
+                if (used[i] && codes[i] == code && amounts[i] == bits && versions[i] == version) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int victim(int set) {
+            int base = set * WAYS;
+            int hand = hands[set];
+            while (referenced[base + hand]) {
+                referenced[base + hand] = false;
+                hand = (hand + 1) & (WAYS - 1);
+            }
+            hands[set] = (byte) ((hand + 1) & (WAYS - 1));
+            return base + hand;
+        }
+    }
+}
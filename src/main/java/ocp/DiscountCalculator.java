@@ -1,14 +1,33 @@
 package ocp;
 
+import money.Money;
+
 public class DiscountCalculator {
 
+    private final TierRegistry registry;
+
+    public DiscountCalculator() {
+        this(TierRegistry.withDefaults());
+    }
+
+    public DiscountCalculator(TierRegistry registry) {
+        if (registry == null) throw new IllegalArgumentException("registry must not be null");
+        this.registry = registry;
+    }
+
     public double computeDiscount(String customerType, double amount) {
-        if (customerType == null) return 0.0;
-      return switch (customerType.toUpperCase()) {
-        case "STANDARD" -> 0.0;
-        case "PREMIUM" -> amount * 0.10;
-        case "VIP" -> amount * 0.20;
-        default -> 0.0;
-      };
+        return registry.resolve(customerType).apply(amount);
+    }
+
+    public double computeDiscount(CustomerTier tier, double amount) {
+        return registry.current(tier).apply(amount);
+    }
+
+    public Money computeDiscount(String customerType, Money amount) {
+        return registry.resolve(customerType).apply(amount);
+    }
+
+    public Money computeDiscount(CustomerTier tier, Money amount) {
+        return registry.current(tier).apply(amount);
     }
 }
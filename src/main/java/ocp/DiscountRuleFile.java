@@ -0,0 +1,126 @@
+package ocp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class DiscountRuleFile implements AutoCloseable {
+
+    private final Path path;
+    private final TierRegistry registry;
+    private final Object reloadLock = new Object();
+    private final Map<String, Double> baseline = new HashMap<>();
+    private byte[] lastDigest;
+    private volatile Exception lastError;
+    private ScheduledExecutorService watcher;
+
+    public DiscountRuleFile(Path path, TierRegistry registry) {
+        if (path == null) throw new IllegalArgumentException("path must not be null");
+        if (registry == null) throw new IllegalArgumentException("registry must not be null");
+        this.path = path;
+        this.registry = registry;
+    }
+
+    public boolean reloadIfChanged() {
+        synchronized (reloadLock) {
+            try {
+                byte[] content = Files.readAllBytes(path);
+                byte[] digest = digest(content);
+                if (Arrays.equals(digest, lastDigest)) {
+                    return false;
+                }
+                Map<String, Double> rates = parse(new String(content, StandardCharsets.UTF_8).lines().toList());
+                Map<String, Double> overridden = new HashMap<>(baseline);
+                Map<String, Double> effective = new LinkedHashMap<>();
+                rates.forEach((name, rate) -> {
+                    String key = name.trim().toUpperCase(Locale.ROOT);
+                    overridden.computeIfAbsent(key, k -> registry.resolve(k).rate());
+                    effective.put(key, rate);
+                });
+                overridden.forEach(effective::putIfAbsent);
+                registry.updateRates(effective);
+                baseline.putAll(overridden);
+                lastDigest = digest;
+                lastError = null;
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot read discount rules from " + path, e);
+            }
+        }
+    }
+
+    public void watch(Duration interval) {
+        synchronized (reloadLock) {
+            if (watcher != null) throw new IllegalStateException("already watching " + path);
+            watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "discount-rules-" + path.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            watcher.scheduleWithFixedDelay(this::pollQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Exception lastError() {
+        return lastError;
+    }
+
+    @Override
+    public void close() {
+        synchronized (reloadLock) {
+            if (watcher != null) {
+                watcher.shutdownNow();
+                watcher = null;
+            }
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            reloadIfChanged();
+        } catch (RuntimeException e) {
+            lastError = e;
+        }
+    }
+
+    private static byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static Map<String, Double> parse(List<String> lines) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int separator = line.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("line " + (i + 1) + ": expected TIER=rate but was '" + line + "'");
+            }
+            String name = line.substring(0, separator).trim();
+            try {
+                rates.put(name, Double.parseDouble(line.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("line " + (i + 1) + ": invalid rate for " + name, e);
+            }
+        }
+        return rates;
+    }
+}
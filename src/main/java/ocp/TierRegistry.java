@@ -0,0 +1,150 @@
+package ocp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class TierRegistry {
+
+    static final int MAX_TIERS = Byte.MAX_VALUE + 1;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    public static TierRegistry withDefaults() {
+        TierRegistry registry = new TierRegistry();
+        registry.register("STANDARD", 0.0);
+        registry.register("PREMIUM", 0.10);
+        registry.register("VIP", 0.20);
+        return registry;
+    }
+
+    public CustomerTier register(String name, double rate) {
+        String key = normalize(name);
+        checkRate(key, rate);
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (current.byName.containsKey(key)) {
+                throw new IllegalArgumentException("tier already registered: " + key);
+            }
+            checkCapacity(current.byCode.length + 1);
+            CustomerTier tier = new CustomerTier(key, current.byCode.length, rate);
+            CustomerTier[] codes = Arrays.copyOf(current.byCode, current.byCode.length + 1);
+            codes[tier.code()] = tier;
+            if (snapshot.compareAndSet(current, new Snapshot(current.version + 1, codes))) {
+                return tier;
+            }
+        }
+    }
+
+    public void updateRates(Map<String, Double> rates) {
+        Map<String, Double> normalized = new LinkedHashMap<>();
+        rates.forEach((name, rate) -> {
+            String key = normalize(name);
+            checkRate(key, rate);
+            normalized.put(key, rate);
+        });
+        while (true) {
+            Snapshot current = snapshot.get();
+            List<CustomerTier> tiers = new ArrayList<>(current.byCode.length + normalized.size());
+            for (CustomerTier tier : current.byCode) {
+                Double rate = normalized.get(tier.name());
+                tiers.add(rate == null ? tier : new CustomerTier(tier.name(), tier.code(), rate));
+            }
+            normalized.forEach((name, rate) -> {
+                if (!current.byName.containsKey(name)) {
+                    tiers.add(new CustomerTier(name, tiers.size(), rate));
+                }
+            });
+            checkCapacity(tiers.size());
+            Snapshot next = new Snapshot(current.version + 1, tiers.toArray(new CustomerTier[0]));
+            if (snapshot.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    public CustomerTier resolve(String name) {
+        if (name == null) return CustomerTier.UNKNOWN;
+        Map<String, CustomerTier> byName = snapshot.get().byName;
+        CustomerTier tier = byName.get(name);
+        if (tier == null) {
+            tier = byName.get(name.toUpperCase(Locale.ROOT));
+        }
+        return tier == null ? CustomerTier.UNKNOWN : tier;
+    }
+
+    public CustomerTier current(CustomerTier tier) {
+        if (tier == null) return CustomerTier.UNKNOWN;
+        CustomerTier current = byCode(tier.code());
+        return current.name().equals(tier.name()) ? current : resolve(tier.name());
+    }
+
+    public CustomerTier byCode(int code) {
+        CustomerTier[] byCode = snapshot.get().byCode;
+        return code >= 0 && code < byCode.length ? byCode[code] : CustomerTier.UNKNOWN;
+    }
+
+    public int size() {
+        return snapshot.get().byCode.length;
+    }
+
+    public long version() {
+        return snapshot.get().version;
+    }
+
+    double[] rates() {
+        return snapshot.get().rates;
+    }
+
+    long[] ratesPpm() {
+        return snapshot.get().ratesPpm;
+    }
+
+    private static String normalize(String name) {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("tier name must not be blank");
+        return name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static void checkRate(String name, Double rate) {
+        if (rate == null || !(rate >= 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException("rate of " + name + " must be within [0, 1]: " + rate);
+        }
+    }
+
+    private static void checkCapacity(int size) {
+        if (size > MAX_TIERS) {
+            throw new IllegalStateException("no more than " + MAX_TIERS + " tiers can be registered");
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, new CustomerTier[0]);
+
+        final long version;
+        final Map<String, CustomerTier> byName;
+        final CustomerTier[] byCode;
+        final double[] rates;
+        final long[] ratesPpm;
+
+        Snapshot(long version, CustomerTier[] byCode) {
+            Map<String, CustomerTier> names = new HashMap<>();
+            double[] rates = new double[byCode.length];
+            long[] ratesPpm = new long[byCode.length];
+            for (CustomerTier tier : byCode) {
+                names.put(tier.name(), tier);
+                rates[tier.code()] = tier.rate();
+                ratesPpm[tier.code()] = tier.ratePpm();
+            }
+            this.version = version;
+            this.byName = Map.copyOf(names);
+            this.byCode = byCode;
+            this.rates = rates;
+            this.ratesPpm = ratesPpm;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package srp;
+
+import java.io.IOException;
+
+public interface EmailTransport {
+    void deliver(String to, String body) throws IOException;
+
+    static String requireAddress(String address, String role) {
+        if (address == null || address.isEmpty()) throw new IllegalArgumentException(role + " must not be empty");
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c == '\r' || c == '\n' || c == '<' || c == '>') {
+                throw new IllegalArgumentException(role + " must not contain CR, LF, '<' or '>': " + address);
+            }
+        }
+        return address;
+    }
+}
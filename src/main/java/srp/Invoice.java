@@ -1,23 +1,93 @@
 package srp;
 
+import money.Money;
+import money.MoneyMath;
+
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 
 public class Invoice {
     private final String customer;
     private final double amount;
+    private final Money money;
+    private String summary;
 
     public Invoice(String customer, double amount) {
         this.customer = customer;
         this.amount = amount;
+        this.money = null;
+    }
+
+    public Invoice(String customer, Money money) {
+        if (money == null) throw new IllegalArgumentException("money must not be null");
+        this.customer = customer;
+        this.amount = money.toDouble();
+        this.money = money;
+    }
+
+    public static void requireStorable(Invoice invoice) {
+        if (invoice == null) throw new IllegalArgumentException("invoice must not be null");
+        String customer = invoice.customer;
+        if (customer == null) throw new IllegalArgumentException("customer must not be null");
+        if (customer.indexOf('\n') >= 0 || customer.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("customer must not contain line breaks: " + customer);
+        }
+    }
+
+    public String getCustomer() {
+        return customer;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public Money getMoney() {
+        return money != null ? money : Money.fromDouble(amount, RoundingMode.HALF_EVEN);
     }
 
     public String summary() {
-        return customer + " owes " + amount;
+        String rendered = summary;
+        if (rendered == null) {
+            rendered = renderAmount(new StringBuilder(48).append(customer).append(" owes "))
+                    .toString();
+            summary = rendered;
+        }
+        return rendered;
+    }
+
+    public StringBuilder renderTo(StringBuilder out) {
+        String rendered = summary;
+        if (rendered != null) {
+            return out.append(rendered);
+        }
+        return renderAmount(out.append(customer).append(" owes "));
+    }
+
+    private StringBuilder renderAmount(StringBuilder out) {
+        return money == null ? out.append(amount) : MoneyMath.appendTo(out, money.minorUnits());
+    }
+
+    public CharBuffer renderTo(CharBuffer out) {
+        return out.put(summary());
+    }
+
+    public ByteBuffer renderTo(ByteBuffer out) {
+        return out.put(summaryUtf8());
+    }
+
+    byte[] summaryUtf8() {
+        return summary().getBytes(StandardCharsets.UTF_8);
     }
 
     public void saveToFile(String path) {
         try (PrintWriter w = new java.io.PrintWriter(path)) { w.println(summary()); }
-        catch (Exception e) { throw new RuntimeException(e); }
+        catch (IOException e) { throw new UncheckedIOException("cannot save invoice to " + path, e); }
     }
 
     public void sendEmail(String to) {
@@ -0,0 +1,365 @@
+package srp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InvoiceEmailOutbox implements AutoCloseable {
+
+    static final int DEFAULT_REMEMBERED_IDS = 100_000;
+
+    private static final String PENDING = "P";
+    private static final String DELIVERED = "D";
+    private static final String FAILED = "F";
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int MAX_JOURNAL_BATCH = 1024;
+    private static final JournalEntry STOP = new JournalEntry("", null);
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final Path journalPath;
+    private final FileChannel journal;
+    private final EmailTransport transport;
+    private final long initialBackoffNanos;
+    private final int maxAttempts;
+    private final ScheduledExecutorService workers;
+    private final BlockingQueue<JournalEntry> journalQueue = new LinkedBlockingQueue<>();
+    private final Thread journalWriter;
+    private final Set<String> inFlightIds = ConcurrentHashMap.newKeySet();
+    private final Map<String, Boolean> acknowledgedIds;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong state = new AtomicLong();
+    private volatile IOException lastJournalError;
+
+    public InvoiceEmailOutbox(Path journalPath, EmailTransport transport, int workerCount,
+                              Duration initialBackoff, int maxAttempts) {
+        this(journalPath, transport, workerCount, initialBackoff, maxAttempts, DEFAULT_REMEMBERED_IDS);
+    }
+
+    InvoiceEmailOutbox(Path journalPath, EmailTransport transport, int workerCount,
+                       Duration initialBackoff, int maxAttempts, int rememberedIds) {
+        if (transport == null) throw new IllegalArgumentException("transport must not be null");
+        if (workerCount < 1) throw new IllegalArgumentException("workerCount must be positive");
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be positive");
+        if (initialBackoff.isNegative()) throw new IllegalArgumentException("initialBackoff must not be negative");
+        if (rememberedIds < 1) throw new IllegalArgumentException("rememberedIds must be positive");
+        this.journalPath = journalPath;
+        this.transport = transport;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxAttempts = maxAttempts;
+        this.acknowledgedIds = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > rememberedIds;
+            }
+        };
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ScheduledThreadPoolExecutor(workerCount, r -> {
+            Thread thread = new Thread(r, "invoice-outbox-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Email> unsent = replay();
+            this.journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            for (Email email : unsent) {
+                queueDepth.incrementAndGet();
+                schedule(email, 0);
+            }
+        } catch (IOException e) {
+            workers.shutdownNow();
+            throw new UncheckedIOException("cannot open outbox journal " + journalPath, e);
+        }
+        this.journalWriter = Thread.ofPlatform().daemon().name("invoice-outbox-journal").start(this::writeJournal);
+    }
+
+    public boolean submit(String invoiceId, Invoice invoice, String to) {
+        if (invoiceId == null || invoiceId.isEmpty()) throw new IllegalArgumentException("invoiceId must not be empty");
+        if (invoice == null) throw new IllegalArgumentException("invoice must not be null");
+        EmailTransport.requireAddress(to, "recipient");
+        long current;
+        do {
+            current = state.get();
+            if ((current & CLOSED) != 0) throw new IllegalStateException("outbox is closed: " + journalPath);
+        } while (!state.compareAndSet(current, current + 1));
+        try {
+            if (!inFlightIds.add(invoiceId)) {
+                return false;
+            }
+            if (isAcknowledged(invoiceId)) {
+                inFlightIds.remove(invoiceId);
+                return false;
+            }
+            Email email = new Email(invoiceId, to, invoice.summary(), System.nanoTime());
+            queueDepth.incrementAndGet();
+            journalQueue.add(new JournalEntry(line(PENDING, invoiceId, to, email.body), email));
+            return true;
+        } finally {
+            state.decrementAndGet();
+        }
+    }
+
+    public int queueDepth() {
+        return queueDepth.get();
+    }
+
+    public long deliveredCount() {
+        return delivered.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    public Duration averageDeliveryLatency() {
+        long count = delivered.sum();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.sum() / count);
+    }
+
+    public Duration maxDeliveryLatency() {
+        return Duration.ofNanos(maxLatencyNanos.get());
+    }
+
+    public IOException lastJournalError() {
+        return lastJournalError;
+    }
+
+    @Override
+    public void close() {
+        if ((state.getAndUpdate(s -> s | CLOSED) & CLOSED) != 0) return;
+        while (state.get() != CLOSED) {
+            Thread.onSpinWait();
+        }
+        workers.shutdownNow();
+        boolean interrupted = false;
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        journalQueue.add(STOP);
+        while (journalWriter.isAlive()) {
+            try {
+                journalWriter.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot close outbox journal " + journalPath, e);
+        }
+        IOException error = lastJournalError;
+        if (error != null) {
+            throw new UncheckedIOException("outbox journal " + journalPath + " was not fully written", error);
+        }
+    }
+
+    static long backoffNanos(long initialBackoffNanos, int attempts) {
+        int shift = Math.min(attempts - 1, 62);
+        if (initialBackoffNanos > MAX_BACKOFF_NANOS >> shift) return MAX_BACKOFF_NANOS;
+        return Math.min(MAX_BACKOFF_NANOS, initialBackoffNanos << shift);
+    }
+
+    private void schedule(Email email, long delayNanos) {
+        try {
+            workers.schedule(() -> attempt(email), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    private void attempt(Email email) {
+        email.attempts++;
+        try {
+            transport.deliver(email.to, email.body);
+        } catch (IOException | RuntimeException e) {
+            if (email.attempts < maxAttempts) {
+                retries.increment();
+                schedule(email, backoffNanos(initialBackoffNanos, email.attempts));
+            } else {
+                queueDepth.decrementAndGet();
+                failed.increment();
+                acknowledge(email.invoiceId, FAILED);
+            }
+            return;
+        }
+        long latency = System.nanoTime() - email.submittedAt;
+        queueDepth.decrementAndGet();
+        delivered.increment();
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        acknowledge(email.invoiceId, DELIVERED);
+    }
+
+    private void acknowledge(String invoiceId, String outcome) {
+        remember(invoiceId);
+        inFlightIds.remove(invoiceId);
+        journalQueue.add(new JournalEntry(line(outcome, invoiceId), null));
+    }
+
+    private boolean isAcknowledged(String invoiceId) {
+        synchronized (acknowledgedIds) {
+            return acknowledgedIds.containsKey(invoiceId);
+        }
+    }
+
+    private void remember(String invoiceId) {
+        synchronized (acknowledgedIds) {
+            acknowledgedIds.put(invoiceId, Boolean.TRUE);
+        }
+    }
+
+    private void writeJournal() {
+        List<JournalEntry> batch = new ArrayList<>(MAX_JOURNAL_BATCH);
+        StringBuilder lines = new StringBuilder();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(journalQueue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            journalQueue.drainTo(batch, MAX_JOURNAL_BATCH - 1);
+            lines.setLength(0);
+            for (JournalEntry entry : batch) {
+                if (entry == STOP) {
+                    running = false;
+                } else {
+                    lines.append(entry.line).append('\n');
+                }
+            }
+            commit(lines);
+            for (JournalEntry entry : batch) {
+                if (entry.email != null) {
+                    schedule(entry.email, 0);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void commit(CharSequence lines) {
+        if (lines.isEmpty()) return;
+        try {
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(lines.toString());
+            while (bytes.hasRemaining()) {
+                journal.write(bytes);
+            }
+            journal.force(false);
+        } catch (IOException e) {
+            lastJournalError = e;
+        }
+    }
+
+    private static String line(String... fields) {
+        StringBuilder line = new StringBuilder();
+        for (String field : fields) {
+            if (line.length() > 0) line.append('\t');
+            escape(field, line);
+        }
+        return line.toString();
+    }
+
+    private List<Email> replay() throws IOException {
+        Map<String, Email> unsent = new LinkedHashMap<>();
+        if (Files.exists(journalPath)) {
+            for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length == 4 && PENDING.equals(fields[0])) {
+                    String id = unescape(fields[1]);
+                    unsent.put(id, new Email(id, unescape(fields[2]), unescape(fields[3]), System.nanoTime()));
+                } else if (fields.length == 2 && (DELIVERED.equals(fields[0]) || FAILED.equals(fields[0]))) {
+                    String id = unescape(fields[1]);
+                    unsent.remove(id);
+                    remember(id);
+                }
+            }
+        }
+        for (String id : unsent.keySet()) {
+            inFlightIds.add(id);
+        }
+        return List.copyOf(unsent.values());
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private record JournalEntry(String line, Email email) {}
+
+    private static final class Email {
+        final String invoiceId;
+        final String to;
+        final String body;
+        final long submittedAt;
+        int attempts;
+
+        Email(String invoiceId, String to, String body, long submittedAt) {
+            this.invoiceId = invoiceId;
+            this.to = to;
+            this.body = body;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package srp;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public class InvoiceExporter {
+
+    public static final String MANIFEST_FILE = "manifest.txt";
+
+    private static final int CHUNK_SIZE = 512;
+    private static final CompletableFuture<Encoded> END = CompletableFuture.completedFuture(null);
+
+    public record Shard(String file, long rows, long crc32) {}
+
+    public record Manifest(List<Shard> shards) {
+        public long totalRows() {
+            return shards.stream().mapToLong(Shard::rows).sum();
+        }
+    }
+
+    private record Encoded(byte[][] bytes, int[] rows) {}
+
+    private final Path outputDirectory;
+    private final int shardCount;
+    private final int inFlightPerShard;
+    private final int encoderCount;
+
+    public InvoiceExporter(Path outputDirectory, int shardCount, int inFlightPerShard) {
+        this(outputDirectory, shardCount, inFlightPerShard, Runtime.getRuntime().availableProcessors());
+    }
+
+    public InvoiceExporter(Path outputDirectory, int shardCount, int inFlightPerShard, int encoderCount) {
+        if (shardCount < 1) throw new IllegalArgumentException("shardCount must be positive");
+        if (inFlightPerShard < 1) throw new IllegalArgumentException("inFlightPerShard must be positive");
+        if (encoderCount < 1) throw new IllegalArgumentException("encoderCount must be positive");
+        this.outputDirectory = outputDirectory;
+        this.shardCount = shardCount;
+        this.inFlightPerShard = inFlightPerShard;
+        this.encoderCount = encoderCount;
+    }
+
+    public Manifest export(Stream<Invoice> invoices) {
+        try (invoices) {
+            return export(invoices.iterator());
+        }
+    }
+
+    public Manifest export(Iterator<Invoice> invoices) {
+        try {
+            Files.createDirectories(outputDirectory);
+            Files.deleteIfExists(outputDirectory.resolve(MANIFEST_FILE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot prepare export directory " + outputDirectory, e);
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger encoderIndex = new AtomicInteger();
+        ExecutorService encoders = Executors.newFixedThreadPool(encoderCount, r -> {
+            Thread thread = new Thread(r, "invoice-export-encoder-" + encoderIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<ShardWriter> writers = new ArrayList<>(shardCount);
+        List<Thread> threads = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            ShardWriter writer = new ShardWriter(shard, String.format("shard-%03d.txt", shard), failure);
+            writers.add(writer);
+            threads.add(Thread.ofPlatform().name("invoice-export-" + shard).start(writer));
+        }
+        try {
+            List<Invoice> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (invoices.hasNext() && failure.get() == null) {
+                Invoice invoice = invoices.next();
+                Invoice.requireStorable(invoice);
+                chunk.add(invoice);
+                if (chunk.size() == CHUNK_SIZE) {
+                    dispatch(chunk, encoders, writers);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty() && failure.get() == null) {
+                dispatch(chunk, encoders, writers);
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            for (ShardWriter writer : writers) {
+                writer.enqueue(END);
+            }
+            join(threads);
+            encoders.shutdownNow();
+        }
+        Throwable error = failure.get();
+        if (error instanceof UncheckedIOException io) throw io;
+        if (error instanceof RuntimeException runtime) throw runtime;
+        if (error != null) throw new IllegalStateException("invoice export failed", error);
+        Manifest manifest = new Manifest(writers.stream().map(ShardWriter::result).toList());
+        writeManifest(manifest);
+        return manifest;
+    }
+
+    int shardOf(Invoice invoice) {
+        Invoice.requireStorable(invoice);
+        return Math.floorMod(invoice.getCustomer().hashCode(), shardCount);
+    }
+
+    private void dispatch(List<Invoice> chunk, ExecutorService encoders, List<ShardWriter> writers) {
+        CompletableFuture<Encoded> encoded = CompletableFuture.supplyAsync(() -> encode(chunk), encoders);
+        for (ShardWriter writer : writers) {
+            writer.enqueue(encoded);
+        }
+    }
+
+    private Encoded encode(List<Invoice> chunk) {
+        ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[shardCount];
+        int[] rows = new int[shardCount];
+        for (Invoice invoice : chunk) {
+            int shard = shardOf(invoice);
+            if (buffers[shard] == null) buffers[shard] = new ByteArrayOutputStream(64 * chunk.size() / shardCount + 64);
+            buffers[shard].writeBytes(invoice.summaryUtf8());
+            buffers[shard].write('\n');
+            rows[shard]++;
+        }
+        byte[][] bytes = new byte[shardCount][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            bytes[shard] = buffers[shard] == null ? null : buffers[shard].toByteArray();
+        }
+        return new Encoded(bytes, rows);
+    }
+
+    private void writeManifest(Manifest manifest) {
+        StringBuilder content = new StringBuilder();
+        for (Shard shard : manifest.shards()) {
+            content.append(shard.file()).append('\t').append(shard.rows()).append('\t')
+                    .append(String.format("%08x", shard.crc32())).append('\n');
+        }
+        try {
+            Path staged = outputDirectory.resolve(MANIFEST_FILE + ".tmp");
+            Files.writeString(staged, content, StandardCharsets.UTF_8);
+            Files.move(staged, outputDirectory.resolve(MANIFEST_FILE), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot write export manifest in " + outputDirectory, e);
+        }
+    }
+
+    private static void join(List<Thread> threads) {
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private final class ShardWriter implements Runnable {
+        private final int shard;
+        private final String file;
+        private final AtomicReference<Throwable> failure;
+        private final BlockingQueue<CompletableFuture<Encoded>> queue = new ArrayBlockingQueue<>(inFlightPerShard);
+        private final CRC32 crc = new CRC32();
+        private long rows;
+
+        ShardWriter(int shard, String file, AtomicReference<Throwable> failure) {
+            this.shard = shard;
+            this.file = file;
+            this.failure = failure;
+        }
+
+        void enqueue(CompletableFuture<Encoded> chunk) {
+            try {
+                while (!queue.offer(chunk, 50, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null && chunk != END) return;
+                    if (failure.get() != null) queue.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        Shard result() {
+            return new Shard(file, rows, crc.getValue());
+        }
+
+        @Override
+        public void run() {
+            try (OutputStream out = new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(outputDirectory.resolve(file)), 64 * 1024), crc)) {
+                CompletableFuture<Encoded> chunk;
+                while ((chunk = queue.take()) != END) {
+                    if (failure.get() != null) continue;
+                    Encoded encoded = chunk.join();
+                    if (encoded.bytes()[shard] != null) {
+                        out.write(encoded.bytes()[shard]);
+                        rows += encoded.rows()[shard];
+                    }
+                }
+            } catch (IOException e) {
+                failure.compareAndSet(null, new UncheckedIOException("cannot write export shard " + file, e));
+                queue.clear();
+            } catch (CompletionException e) {
+                failure.compareAndSet(null, e.getCause() == null ? e : e.getCause());
+                queue.clear();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+                queue.clear();
+            }
+        }
+    }
+}
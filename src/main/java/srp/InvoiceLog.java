@@ -0,0 +1,256 @@
+package srp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class InvoiceLog implements AutoCloseable {
+
+    public static final int RECORD_SIZE = 16;
+
+    static final String DICTIONARY_FILE = "customers.dict";
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int CUSTOMER_OFFSET = 0;
+    private static final int AMOUNT_OFFSET = 4;
+    private static final int MARKER_OFFSET = 12;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final FileChannel dictionary;
+    private final Map<String, Integer> customerIds = new HashMap<>();
+    private volatile String[] customers = new String[16];
+    private volatile int customerCount;
+    private final List<FileChannel> segmentChannels = new ArrayList<>();
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private volatile long size;
+    private boolean closed;
+
+    public InvoiceLog(Path directory, int recordsPerSegment) {
+        if (recordsPerSegment < 1) throw new IllegalArgumentException("recordsPerSegment must be positive");
+        if (recordsPerSegment > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("recordsPerSegment must be at most " + Integer.MAX_VALUE / RECORD_SIZE
+                    + " so a segment fits one mapping");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        try {
+            Files.createDirectories(directory);
+            this.dictionary = FileChannel.open(directory.resolve(DICTIONARY_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            recoverDictionary();
+            recoverSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open invoice log " + directory, e);
+        }
+    }
+
+    public synchronized long append(Invoice invoice) {
+        if (invoice == null || invoice.getCustomer() == null) {
+            throw new IllegalArgumentException("invoice and customer must not be null");
+        }
+        if (closed) throw new IllegalStateException("invoice log is closed: " + directory);
+        try {
+            int customerId = customerId(invoice.getCustomer());
+            long sequence = size;
+            int segment = (int) (sequence / recordsPerSegment);
+            if (segment == segments.length) {
+                openSegment(segment);
+            }
+            MappedByteBuffer buffer = segments[segment];
+            int offset = offset(sequence);
+            buffer.putInt(offset + CUSTOMER_OFFSET, customerId);
+            buffer.putDouble(offset + AMOUNT_OFFSET, invoice.getAmount());
+            buffer.putInt(offset + MARKER_OFFSET, marker(customerId, invoice.getAmount()));
+            size = sequence + 1;
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot append invoice to " + directory, e);
+        }
+    }
+
+    public Invoice get(long sequence) {
+        if (sequence < 0 || sequence >= size) {
+            throw new IndexOutOfBoundsException("sequence " + sequence + " outside [0, " + size + ")");
+        }
+        MappedByteBuffer buffer = segments[(int) (sequence / recordsPerSegment)];
+        int offset = offset(sequence);
+        return new Invoice(customers[buffer.getInt(offset + CUSTOMER_OFFSET)], buffer.getDouble(offset + AMOUNT_OFFSET));
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    public Map<String, Double> totalOwedPerCustomer() {
+        long count = size;
+        MappedByteBuffer[] mapped = segments;
+        String[] names = customers;
+        double[] totals = new double[customerCount];
+        for (int segment = 0; (long) segment * recordsPerSegment < count; segment++) {
+            ByteBuffer buffer = mapped[segment];
+            int records = (int) Math.min(recordsPerSegment, count - (long) segment * recordsPerSegment);
+            for (int record = 0, offset = 0; record < records; record++, offset += RECORD_SIZE) {
+                totals[buffer.getInt(offset + CUSTOMER_OFFSET)] += buffer.getDouble(offset + AMOUNT_OFFSET);
+            }
+        }
+        Map<String, Double> perCustomer = new LinkedHashMap<>();
+        for (int id = 0; id < totals.length; id++) {
+            perCustomer.put(names[id], totals[id]);
+        }
+        return perCustomer;
+    }
+
+    public synchronized void force() {
+        try {
+            dictionary.force(false);
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot force invoice log " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        force();
+        closed = true;
+        try {
+            dictionary.close();
+            for (FileChannel channel : segmentChannels) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot close invoice log " + directory, e);
+        }
+    }
+
+    private int offset(long sequence) {
+        return (int) (sequence % recordsPerSegment) * RECORD_SIZE;
+    }
+
+    private int customerId(String customer) throws IOException {
+        Integer existing = customerIds.get(customer);
+        if (existing != null) return existing;
+        if (customer.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("customer must not contain line breaks: " + customer);
+        }
+        ByteBuffer line = ByteBuffer.wrap((customer + '\n').getBytes(StandardCharsets.UTF_8));
+        long position = dictionary.size();
+        while (line.hasRemaining()) {
+            position += dictionary.write(line, position);
+        }
+        dictionary.force(false);
+        return addCustomer(customer);
+    }
+
+    private int addCustomer(String customer) {
+        int id = customerCount;
+        String[] names = customers;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        names[id] = customer;
+        customers = names;
+        customerIds.put(customer, id);
+        customerCount = id + 1;
+        return id;
+    }
+
+    private void recoverDictionary() throws IOException {
+        byte[] content = Files.readAllBytes(directory.resolve(DICTIONARY_FILE));
+        int start = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == '\n') {
+                addCustomer(new String(content, start, i - start, StandardCharsets.UTF_8));
+                start = i + 1;
+            }
+        }
+        if (start < content.length) {
+            dictionary.truncate(start);
+        }
+    }
+
+    private void recoverSegments() throws IOException {
+        int segmentFiles = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path ignored : files) {
+                segmentFiles++;
+            }
+        }
+        for (int segment = 0; segment < segmentFiles; segment++) {
+            Path path = segmentPath(segment);
+            if (!Files.exists(path)) {
+                throw new IllegalStateException("missing invoice log segment " + path);
+            }
+            long length = Files.size(path);
+            long expected = (long) recordsPerSegment * RECORD_SIZE;
+            if (length < expected && segment == segmentFiles - 1) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(0);
+                }
+            } else if (length != expected) {
+                throw new IllegalStateException("segment " + path + " was not written with " + recordsPerSegment
+                        + " records per segment");
+            }
+            openSegment(segment);
+        }
+        if (segmentFiles == 0) return;
+        MappedByteBuffer last = segments[segmentFiles - 1];
+        int valid = 0;
+        while (valid < recordsPerSegment && isValid(last, valid * RECORD_SIZE)) {
+            valid++;
+        }
+        for (int offset = valid * RECORD_SIZE; offset < recordsPerSegment * RECORD_SIZE; offset++) {
+            last.put(offset, (byte) 0);
+        }
+        size = (long) (segmentFiles - 1) * recordsPerSegment + valid;
+    }
+
+    private boolean isValid(ByteBuffer buffer, int offset) {
+        int customerId = buffer.getInt(offset + CUSTOMER_OFFSET);
+        double amount = buffer.getDouble(offset + AMOUNT_OFFSET);
+        return customerId >= 0 && customerId < customerCount
+                && buffer.getInt(offset + MARKER_OFFSET) == marker(customerId, amount);
+    }
+
+    private void openSegment(int segment) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmentChannels.add(channel);
+        MappedByteBuffer[] mapped = Arrays.copyOf(segments, segment + 1);
+        mapped[segment] = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        segments = mapped;
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static int marker(int customerId, double amount) {
+        long bits = Double.doubleToRawLongBits(amount);
+        int h = customerId * 0x9E3779B9 ^ (int) bits * 0x85EBCA6B ^ (int) (bits >>> 32) * 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,230 @@
+package srp;
+
+import money.Money;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class InvoiceStore implements AutoCloseable {
+
+    static final String SEPARATOR = " owes ";
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int syncEvery;
+    private final ScheduledExecutorService syncer;
+    private int unsynced;
+    private boolean dirty;
+    private boolean closed;
+    private volatile Exception lastError;
+
+    public InvoiceStore(Path path, int syncEvery, Duration syncInterval) {
+        this(path, syncEvery, syncInterval, DEFAULT_BUFFER_SIZE);
+    }
+
+    public InvoiceStore(Path path, int syncEvery, Duration syncInterval, int bufferSize) {
+        if (syncEvery < 1) throw new IllegalArgumentException("syncEvery must be positive");
+        if (syncInterval.isNegative()) throw new IllegalArgumentException("syncInterval must not be negative");
+        this.path = path;
+        this.syncEvery = syncEvery;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open invoice store " + path, e);
+        }
+        if (syncInterval.isZero()) {
+            this.syncer = null;
+        } else {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "invoice-store-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = Math.max(1, syncInterval.toMillis());
+            syncer.scheduleWithFixedDelay(this::syncIfDirty, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void append(Invoice invoice) {
+        ensureOpen();
+        Invoice.requireStorable(invoice);
+        try {
+            write(invoice);
+            if (++unsynced >= syncEvery) {
+                syncNow();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot append invoice to " + path, e);
+        }
+    }
+
+    public synchronized void appendAll(List<Invoice> invoices) {
+        ensureOpen();
+        for (Invoice invoice : invoices) {
+            Invoice.requireStorable(invoice);
+        }
+        try {
+            for (Invoice invoice : invoices) {
+                write(invoice);
+            }
+            unsynced += invoices.size();
+            if (unsynced >= syncEvery) {
+                syncNow();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot append " + invoices.size() + " invoices to " + path, e);
+        }
+    }
+
+    public synchronized void flush() {
+        ensureOpen();
+        try {
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot flush invoice store " + path, e);
+        }
+    }
+
+    public synchronized void sync() {
+        ensureOpen();
+        try {
+            syncNow();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot sync invoice store " + path, e);
+        }
+    }
+
+    public Exception lastError() {
+        return lastError;
+    }
+
+    public Stream<Invoice> stream() {
+        synchronized (this) {
+            if (!closed) flush();
+        }
+        return read(path);
+    }
+
+    public static Stream<Invoice> read(Path path) {
+        try {
+            return Files.lines(path, StandardCharsets.UTF_8).map(InvoiceStore::parse);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read invoice store " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            IOException failure = null;
+            try {
+                syncNow();
+            } catch (IOException e) {
+                failure = e;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("cannot close invoice store " + path, failure);
+            }
+        }
+    }
+
+    static Invoice parse(String line) {
+        int separator = line.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("not an invoice line: " + line);
+        }
+        String customer = line.substring(0, separator);
+        String amount = line.substring(separator + SEPARATOR.length());
+        if (isExactAmount(amount)) {
+            return new Invoice(customer, Money.parse(amount));
+        }
+        return new Invoice(customer, Double.parseDouble(amount));
+    }
+
+    private static boolean isExactAmount(String amount) {
+        int start = amount.startsWith("-") ? 1 : 0;
+        int point = amount.length() - 3;
+        if (point <= start || amount.charAt(point) != '.') return false;
+        for (int i = start; i < amount.length(); i++) {
+            if (i != point && (amount.charAt(i) < '0' || amount.charAt(i) > '9')) return false;
+        }
+        return true;
+    }
+
+    private synchronized void syncIfDirty() {
+        if (closed || !dirty) return;
+        try {
+            syncNow();
+        } catch (IOException | RuntimeException e) {
+            lastError = e;
+        }
+    }
+
+    private void syncNow() throws IOException {
+        drain();
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+        unsynced = 0;
+    }
+
+    private void write(Invoice invoice) throws IOException {
+        byte[] summary = invoice.summaryUtf8();
+        if (summary.length + 1 > buffer.remaining()) {
+            drain();
+        }
+        if (summary.length + 1 > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(summary));
+            writeFully(ByteBuffer.wrap(NEWLINE));
+        } else {
+            buffer.put(summary).put((byte) '\n');
+        }
+        dirty = true;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("invoice store is closed: " + path);
+    }
+}
@@ -0,0 +1,69 @@
+package srp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+public class SmtpTransport implements EmailTransport {
+
+    private final String host;
+    private final int port;
+    private final String from;
+    private final int timeoutMillis;
+
+    public SmtpTransport(String host, int port, String from, Duration timeout) {
+        this.host = host;
+        this.port = port;
+        this.from = EmailTransport.requireAddress(from, "sender");
+        this.timeoutMillis = (int) timeout.toMillis();
+    }
+
+    @Override
+    public void deliver(String to, String body) throws IOException {
+        EmailTransport.requireAddress(to, "recipient");
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            expect(in, 220);
+            command(out, in, "HELO localhost", 250);
+            command(out, in, "MAIL FROM:<" + from + ">", 250);
+            command(out, in, "RCPT TO:<" + to + ">", 250);
+            command(out, in, "DATA", 354);
+            out.write("Subject: Invoice\r\n\r\n");
+            for (String line : body.split("\r?\n", -1)) {
+                out.write(line.startsWith(".") ? "." + line : line);
+                out.write("\r\n");
+            }
+            command(out, in, ".", 250);
+            command(out, in, "QUIT", 221);
+        }
+    }
+
+    private static void command(BufferedWriter out, BufferedReader in, String command, int expected) throws IOException {
+        out.write(command);
+        out.write("\r\n");
+        out.flush();
+        expect(in, expected);
+    }
+
+    private static void expect(BufferedReader in, int expected) throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null || line.length() < 3) {
+                throw new IOException("SMTP connection closed while waiting for " + expected);
+            }
+        } while (line.length() > 3 && line.charAt(3) == '-');
+        if (!line.startsWith(Integer.toString(expected))) {
+            throw new IOException("SMTP server replied '" + line + "', expected " + expected);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package billing;
+
+import dip.BatchSender;
+import dip.InMemoryGateway;
+import dip.NotificationService;
+import metrics.MetricsRegistry;
+import money.Money;
+import ocp.DiscountCalculator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import srp.InvoiceStore;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Reactive billing pipeline tests")
+class BillingPipelineTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Every order is discounted, persisted once and notified in bounded batches")
+    void orders_should_flow_through_every_stage() throws Exception {
+        Path file = dir.resolve("invoices.txt");
+        InMemoryGateway gateway = new InMemoryGateway("email");
+        MetricsRegistry metrics = new MetricsRegistry(true, 1);
+        int orders = 5_000;
+        try (InvoiceStore store = new InvoiceStore(file, 1000, Duration.ZERO);
+             BillingPipeline pipeline = new BillingPipeline(new DiscountCalculator(), store, gateway,
+                     new BillingPipeline.Options(3, 2, 2, 64, 32), metrics)) {
+            for (int i = 0; i < orders; i++) {
+                String tier = i % 3 == 0 ? "VIP" : i % 3 == 1 ? "PREMIUM" : "STANDARD";
+                pipeline.submit(new Order("customer-" + (i % 17), tier, Money.ofMinor(1_005)));
+            }
+            pipeline.complete().get(10, TimeUnit.SECONDS);
+
+            for (BillingPipeline.StageStats stage : pipeline.stats()) {
+                assertEquals(orders, stage.items(), stage.name());
+                assertEquals(0, stage.failed(), stage.name());
+            }
+            assertEquals(List.of("pricing", "persist", "notify"),
+                    pipeline.stats().stream().map(BillingPipeline.StageStats::name).toList());
+            assertTrue(metrics.snapshot().containsKey("billing.persist"));
+        }
+
+        Map<String, Integer> owed = new HashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            owed.merge(line.substring(line.indexOf(" owes ") + 6), 1, Integer::sum);
+        }
+        assertEquals(Map.of("8.04", 1667, "9.05", 1667, "10.05", 1666), owed);
+        assertTrue(gateway.batches().stream().allMatch(batch -> batch.size() <= 32));
+        assertEquals(orders, gateway.batches().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    @DisplayName("Orders submitted in bulk are grouped per lane and keep per-customer order")
+    void bulk_submitted_orders_should_keep_per_customer_order() throws Exception {
+        Path file = dir.resolve("invoices.txt");
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            orders.add(new Order("customer-" + (i % 7), "STANDARD", Money.ofMinor(100 + i)));
+        }
+        try (InvoiceStore store = new InvoiceStore(file, 1000, Duration.ZERO);
+             BillingPipeline pipeline = new BillingPipeline(new DiscountCalculator(), store, messages -> messages,
+                     new BillingPipeline.Options(3, 1, 1, 8, 16), new MetricsRegistry(false))) {
+            pipeline.submitAll(orders.subList(0, 1_000));
+            pipeline.submitAll(List.of());
+            pipeline.submitAll(orders.subList(1_000, 2_000));
+            List<Order> withNull = new ArrayList<>(orders.subList(0, 1));
+            withNull.add(null);
+            assertThrows(IllegalArgumentException.class, () -> pipeline.submitAll(withNull));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.submitAll(null));
+            pipeline.complete().get(10, TimeUnit.SECONDS);
+
+            for (BillingPipeline.StageStats stage : pipeline.stats()) {
+                assertEquals(orders.size(), stage.items(), stage.name());
+            }
+            assertTrue(pipeline.stats().get(0).batches() < orders.size() / 4);
+        }
+
+        Map<String, List<String>> perCustomer = new HashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            String customer = line.substring(0, line.indexOf(" owes "));
+            perCustomer.computeIfAbsent(customer, c -> new ArrayList<>()).add(line);
+        }
+        Map<String, List<String>> expected = new HashMap<>();
+        for (Order order : orders) {
+            expected.computeIfAbsent(order.customer(), c -> new ArrayList<>())
+                    .add(order.customer() + " owes " + order.amount());
+        }
+        assertEquals(expected, perCustomer);
+    }
+
+    @Test
+    @DisplayName("A stalled notifier blocks the producer once every bounded buffer is full")
+    void stalled_notifier_should_apply_backpressure_to_producer() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        BatchSender gate = messages -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.addAndGet(messages.size());
+            return messages;
+        };
+        AtomicInteger submitted = new AtomicInteger();
+        int orders = 10_000;
+        try (InvoiceStore store = new InvoiceStore(dir.resolve("invoices.txt"), 1000, Duration.ZERO);
+             BillingPipeline pipeline = new BillingPipeline(new DiscountCalculator(), store, gate,
+                     new BillingPipeline.Options(1, 1, 1, 16, 8), new MetricsRegistry(false))) {
+            Thread producer = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < orders; i++) {
+                    pipeline.submit(new Order("customer-" + i, "VIP", Money.ofMinor(100)));
+                    submitted.incrementAndGet();
+                }
+            });
+            try {
+                int last = -1;
+                while (submitted.get() != last) {
+                    last = submitted.get();
+                    Thread.sleep(100);
+                }
+                assertTrue(producer.isAlive());
+                assertTrue(submitted.get() < 500, "producer ran ahead by " + submitted.get());
+            } finally {
+                release.countDown();
+            }
+            producer.join(10_000);
+            pipeline.complete().get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(orders, sent.get());
+    }
+
+    @Test
+    @DisplayName("A failing notification batch is counted and the pipeline still drains")
+    void failing_batch_should_be_counted_not_fatal() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BatchSender flaky = messages -> {
+            if (calls.incrementAndGet() == 1) throw new IllegalStateException("gateway down");
+            return messages;
+        };
+        try (InvoiceStore store = new InvoiceStore(dir.resolve("invoices.txt"), 1000, Duration.ZERO);
+             BillingPipeline pipeline = new BillingPipeline(new DiscountCalculator(), store, flaky,
+                     new BillingPipeline.Options(1, 1, 1, 8, 4), new MetricsRegistry(false))) {
+            for (int i = 0; i < 4; i++) {
+                pipeline.submit(new Order("alice", "VIP", Money.ofMinor(100)));
+            }
+            pipeline.complete().get(10, TimeUnit.SECONDS);
+
+            BillingPipeline.StageStats notify = pipeline.stats().get(2);
+            assertTrue(notify.failed() >= 1);
+            assertEquals(4, notify.items());
+            assertEquals("gateway down", pipeline.lastError().getMessage());
+            assertThrows(IllegalStateException.class,
+                    () -> pipeline.submit(new Order("bob", "VIP", Money.ofMinor(100))));
+        }
+    }
+
+    @Test
+    @DisplayName("An unstorable customer fails only its own order and the rest of the batch is persisted")
+    void invalid_order_should_fail_alone() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        Path file = dir.resolve("invoices.txt");
+        try (InvoiceStore store = new InvoiceStore(file, 1000, Duration.ZERO);
+             BillingPipeline pipeline = new BillingPipeline(new DiscountCalculator(), store,
+                     messages -> { sent.addAll(messages); return messages; },
+                     new BillingPipeline.Options(1, 1, 1, 8, 4), new MetricsRegistry(false))) {
+            pipeline.submit(new Order("alice", "VIP", Money.ofMinor(100)));
+            pipeline.submit(new Order("mallory\nbob owes 0.00", "VIP", Money.ofMinor(100)));
+            pipeline.submit(new Order("carol", "VIP", Money.ofMinor(100)));
+            pipeline.complete().get(10, TimeUnit.SECONDS);
+
+            assertEquals(1, pipeline.stats().get(0).failed());
+            assertEquals(0, pipeline.stats().get(1).failed());
+            assertInstanceOf(IllegalArgumentException.class, pipeline.lastError());
+        }
+        assertEquals(List.of("alice owes 0.80", "carol owes 0.80"), Files.readAllLines(file));
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    @DisplayName("An Error thrown by a stage fails the whole batch and the pipeline still drains")
+    void stage_error_should_fail_the_batch() throws Exception {
+        BatchSender broken = messages -> { throw new AssertionError("sender bug"); };
+        try (InvoiceStore store = new InvoiceStore(dir.resolve("invoices.txt"), 1000, Duration.ZERO);
+             BillingPipeline pipeline = new BillingPipeline(new DiscountCalculator(), store, broken,
+                     new BillingPipeline.Options(1, 1, 1, 8, 4), new MetricsRegistry(false))) {
+            for (int i = 0; i < 4; i++) {
+                pipeline.submit(new Order("alice", "VIP", Money.ofMinor(100)));
+            }
+            pipeline.complete().get(10, TimeUnit.SECONDS);
+
+            assertEquals(4, pipeline.stats().get(2).failed());
+            assertInstanceOf(AssertionError.class, pipeline.lastError().getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("NotificationService can back the notify stage and options are validated")
+    void notification_service_adapter_and_options() {
+        BatchSender sender = BillingPipeline.sender(new NotificationService(), "sms");
+        assertEquals(2, sender.sendBatch(List.of("a", "b")).size());
+        assertThrows(IllegalArgumentException.class, () -> new BillingPipeline.Options(0, 1, 1, 8, 8));
+        assertThrows(IllegalArgumentException.class, () -> new BillingPipeline.Options(1, 1, 1, 8, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Order("", "VIP", Money.ZERO));
+    }
+}
@@ -0,0 +1,110 @@
+package dip;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Asynchronous notification dispatch tests")
+class AsyncNotificationServiceTest {
+
+    @Test
+    @DisplayName("Async dispatch completes with the same result as the synchronous service")
+    void async_dispatch_should_match_sync_result() {
+        try (AsyncNotificationService async = new AsyncNotificationService(
+                new NotificationService(), 16, 4, AsyncNotificationService.Backpressure.BLOCK)) {
+            assertEquals("email: hi", async.notifyUserAsync("EMAIL", "hi").join());
+            assertEquals("sms: hi", async.notifyUserAsync("sms", "hi").join());
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown channels are rejected without creating a per-channel limit")
+    void unknown_channels_should_be_rejected() {
+        try (AsyncNotificationService async = new AsyncNotificationService(
+                new NotificationService(), 16, 4, AsyncNotificationService.Backpressure.FAIL_FAST)) {
+            for (int i = 0; i < 1_000; i++) {
+                CompletionException error = assertThrows(CompletionException.class,
+                        () -> async.notifyUserAsync("carrier-pigeon-" + System.nanoTime(), "hi").join());
+                assertInstanceOf(IllegalArgumentException.class, error.getCause());
+            }
+            assertInstanceOf(IllegalArgumentException.class, assertThrows(CompletionException.class,
+                    () -> async.notifyUserAsync(null, "hi").join()).getCause());
+            assertEquals(0, async.pending());
+            assertEquals(0, async.channelLimits());
+            assertEquals("email: hi", async.notifyUserAsync("Email", "hi").join());
+            assertEquals(1, async.channelLimits());
+        }
+    }
+
+    @Test
+    @DisplayName("No more than the per-channel limit of sends run at once")
+    void per_channel_limit_should_bound_concurrency() {
+        GatedService gated = new GatedService();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        try (AsyncNotificationService async = new AsyncNotificationService(
+                gated, 64, 2, AsyncNotificationService.Backpressure.BLOCK)) {
+            for (int i = 0; i < 20; i++) {
+                results.add(async.notifyUserAsync("sms", "m" + i));
+            }
+            gated.release.countDown();
+            results.forEach(CompletableFuture::join);
+        }
+
+        assertTrue(gated.maxConcurrent.get() <= 2);
+        assertEquals(0, results.stream().filter(CompletableFuture::isCompletedExceptionally).count());
+    }
+
+    @Test
+    @DisplayName("A full queue fails fast or drops depending on the backpressure policy")
+    void full_queue_should_apply_backpressure_policy() throws Exception {
+        GatedService gated = new GatedService();
+        try (AsyncNotificationService failFast = new AsyncNotificationService(
+                gated, 1, 1, AsyncNotificationService.Backpressure.FAIL_FAST);
+             AsyncNotificationService dropping = new AsyncNotificationService(
+                     gated, 1, 1, AsyncNotificationService.Backpressure.DROP)) {
+            failFast.notifyUserAsync("email", "first");
+            dropping.notifyUserAsync("email", "first");
+            assertTrue(gated.started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(RejectedExecutionException.class, () -> failFast.notifyUserAsync("email", "second"));
+            CompletableFuture<String> droppedResult = dropping.notifyUserAsync("email", "second");
+            CompletionException error = assertThrows(CompletionException.class, droppedResult::join);
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+            assertEquals(1, dropping.dropped());
+            assertEquals(1, dropping.pending());
+
+            gated.release.countDown();
+        }
+    }
+
+    private static final class GatedService extends NotificationService {
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        @Override
+        public String notifyUser(String channel, String message) {
+            maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return super.notifyUser(channel, message);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dip;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Channel routing table tests")
+class ChannelRegistryTest {
+
+    @Test
+    @DisplayName("Default channels resolve case-insensitively to long-lived senders")
+    void default_channels_should_resolve_to_singletons() {
+        ChannelRegistry registry = ChannelRegistry.withDefaults();
+
+        MessageSender email = registry.lookup("email");
+
+        assertInstanceOf(EmailSender.class, email);
+        assertSame(email, registry.lookup("EMAIL"));
+        assertSame(email, registry.lookup("eMaIl"));
+        assertInstanceOf(SmsSender.class, registry.lookup("Sms"));
+        assertNull(registry.lookup("push"));
+        assertNull(registry.lookup(null));
+    }
+
+    @Test
+    @DisplayName("New channels plug into the service without editing it")
+    void new_channel_should_be_routed_by_service() {
+        ChannelRegistry registry = ChannelRegistry.withDefaults();
+        registry.register("Push", message -> "push: " + message);
+        NotificationService service = new NotificationService(registry);
+
+        assertEquals("push: hi", service.notifyUser("PUSH", "hi"));
+        assertEquals("email: hi", service.notifyUser("Email", "hi"));
+        assertEquals("hi", service.notifyUser("fax", "hi"));
+        assertThrows(IllegalArgumentException.class, () -> registry.register("push", message -> message));
+    }
+
+    @Test
+    @DisplayName("Many channels, including colliding hashes, all stay reachable")
+    void many_channels_should_stay_reachable() {
+        ChannelRegistry registry = new ChannelRegistry();
+        registry.register("Aa", message -> "Aa");
+        registry.register("BB", message -> "BB");
+        for (int i = 0; i < 100; i++) {
+            String name = "channel-" + i;
+            registry.register(name, message -> name);
+        }
+
+        assertEquals("Aa", registry.lookup("aa").send(""));
+        assertEquals("BB", registry.lookup("bb").send(""));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("channel-" + i, registry.lookup("CHANNEL-" + i).send(""));
+        }
+        assertEquals(102, registry.size());
+    }
+
+    @Test
+    @DisplayName("Routing a message allocates nothing")
+    void lookup_should_not_allocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ChannelRegistry registry = ChannelRegistry.withDefaults();
+        String[] channels = {"email", "SMS", "push"};
+        int found = 0;
+        for (int i = 0; i < 50_000; i++) {
+            if (registry.lookup(channels[i % 3]) != null) found++;
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 50_000; i++) {
+            if (registry.lookup(channels[i % 3]) != null) found++;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(found > 0);
+        assertTrue(allocated < 1024, "routing allocated " + allocated + " bytes");
+    }
+}
@@ -1,16 +1,13 @@
 package dip;
 
+import index.ClassIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,21 +24,7 @@ class DipRefactoTest {
     @Test
     @DisplayName("A MessageSender contract exists with send(String) method")
     void message_sender_contract_should_exist() throws Exception {
-        Path srcPath = Paths.get("src/main/java/dip");
-        List<Class<?>> classes = new ArrayList<>();
-
-        if (Files.exists(srcPath)) {
-            try (Stream<Path> files = Files.walk(srcPath)) {
-                files.filter(path -> path.toString().endsWith(".java"))
-                        .map(path -> path.getFileName().toString().replace(".java", ""))
-                        .forEach(className -> {
-                            try {
-                                classes.add(Class.forName("dip." + className));
-                            } catch (ClassNotFoundException e) {
-                            }
-                        });
-            }
-        }
+        List<Class<?>> classes = ClassIndex.classes("dip");
 
         Optional<Class<?>> messageSenderOpt = classes.stream().filter(c -> c.isInterface() && c.getSimpleName().equals("MessageSender")).findFirst();
         assertTrue(messageSenderOpt.isPresent());
@@ -0,0 +1,132 @@
+package dip;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Multi-channel fan-out notifier tests")
+class FanOutNotifierTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private FanOutNotifier notifier(int burst, double perSecond, Duration window) {
+        return new FanOutNotifier(ChannelRegistry.withDefaults(),
+                new RecipientRateLimiter(1024, burst, perSecond, clock::get),
+                new SlidingWindowDeduplicator(1024, window, clock::get));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("One event is delivered on every requested channel")
+    void event_should_fan_out_to_all_channels() {
+        FanOutNotifier notifier = notifier(10, 10, Duration.ofSeconds(1));
+
+        FanOutNotifier.Result result = notifier.notify("alice", "hello", "email", "sms");
+
+        assertEquals(FanOutNotifier.Outcome.SENT, result.outcome());
+        assertEquals(List.of("email: hello", "sms: hello"), result.deliveries());
+    }
+
+    @Test
+    @DisplayName("Identical messages to one recipient are suppressed until the window slides past")
+    void duplicates_should_be_suppressed_within_window() {
+        FanOutNotifier notifier = notifier(10, 10, Duration.ofSeconds(5));
+
+        assertEquals(FanOutNotifier.Outcome.SENT, notifier.notify("alice", "hello", "email").outcome());
+        advance(Duration.ofSeconds(4));
+        assertEquals(FanOutNotifier.Outcome.DUPLICATE, notifier.notify("alice", "hello", "email").outcome());
+        assertEquals(FanOutNotifier.Outcome.SENT, notifier.notify("bob", "hello", "email").outcome());
+        assertEquals(FanOutNotifier.Outcome.SENT, notifier.notify("alice", "bye", "email").outcome());
+        advance(Duration.ofSeconds(2));
+        assertEquals(FanOutNotifier.Outcome.SENT, notifier.notify("alice", "hello", "email").outcome());
+        assertEquals(1, notifier.duplicateCount());
+    }
+
+    @Test
+    @DisplayName("A message seen days ago is not mistaken for a fresh duplicate")
+    void old_entries_should_not_look_fresh_again() {
+        SlidingWindowDeduplicator deduplicator = new SlidingWindowDeduplicator(1024, Duration.ofSeconds(5), clock::get);
+
+        assertTrue(deduplicator.firstSeen("alice", "hello"));
+        advance(Duration.ofMillis(1L << 28));
+        assertTrue(deduplicator.firstSeen("alice", "hello"));
+        advance(Duration.ofDays(400));
+        assertTrue(deduplicator.firstSeen("alice", "hello"));
+        assertFalse(deduplicator.firstSeen("alice", "hello"));
+    }
+
+    @Test
+    @DisplayName("Each recipient gets a burst and then the refill rate, and throttled events are not remembered")
+    void recipients_should_be_rate_limited() {
+        FanOutNotifier notifier = notifier(2, 1, Duration.ofMinutes(1));
+
+        assertEquals(FanOutNotifier.Outcome.SENT, notifier.notify("alice", "m1", "sms").outcome());
+        assertEquals(FanOutNotifier.Outcome.SENT, notifier.notify("alice", "m2", "sms").outcome());
+        assertEquals(FanOutNotifier.Outcome.RATE_LIMITED, notifier.notify("alice", "m3", "sms").outcome());
+        assertEquals(FanOutNotifier.Outcome.SENT, notifier.notify("bob", "m3", "sms").outcome());
+        advance(Duration.ofMillis(1_000));
+        assertEquals(FanOutNotifier.Outcome.SENT, notifier.notify("alice", "m3", "sms").outcome());
+        assertEquals(FanOutNotifier.Outcome.RATE_LIMITED, notifier.notify("alice", "m4", "sms").outcome());
+        assertEquals(2, notifier.rateLimitedCount());
+    }
+
+    @Test
+    @DisplayName("Recipients that share a stripe keep separate buckets")
+    void colliding_recipients_should_be_limited_independently() {
+        RecipientRateLimiter limiter = new RecipientRateLimiter(1, 2, 1, clock::get);
+        assertEquals(limiter.stripeOf("alice"), limiter.stripeOf("bob"));
+
+        assertTrue(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("bob"));
+        assertTrue(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("bob"));
+        assertFalse(limiter.tryAcquire("alice"));
+        assertFalse(limiter.tryAcquire("bob"));
+        for (int i = 0; i < RecipientRateLimiter.WAYS - 2; i++) {
+            assertTrue(limiter.tryAcquire("carol-" + i));
+        }
+        assertFalse(limiter.tryAcquire("alice"));
+        advance(Duration.ofMillis(1_000));
+        assertTrue(limiter.tryAcquire("alice"));
+        assertFalse(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("bob"));
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never take more tokens than a bucket holds")
+    void concurrent_acquires_should_respect_burst() throws Exception {
+        RecipientRateLimiter limiter = new RecipientRateLimiter(16, 1_000, 1, clock::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire("alice")) granted.incrementAndGet();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1_000, granted.get());
+    }
+}
@@ -0,0 +1,131 @@
+package dip;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Micro-batching sender pipeline tests")
+class MicroBatcherTest {
+
+    @Test
+    @DisplayName("Messages are flushed in batches no larger than the size limit and results are correlated")
+    void batches_should_respect_size_limit_and_correlate_results() {
+        InMemoryGateway gateway = new InMemoryGateway("sms");
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        try (MicroBatcher batcher = new MicroBatcher("sms", gateway, 4, Duration.ofSeconds(10))) {
+            for (int i = 0; i < 10; i++) {
+                results.add(batcher.submit("m" + i));
+            }
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("sms: m" + i, results.get(i).join());
+        }
+        assertTrue(gateway.batches().stream().allMatch(batch -> batch.size() <= 4));
+        assertEquals(10, gateway.batches().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    @DisplayName("A partial batch is flushed once the linger time elapses")
+    void partial_batch_should_flush_after_linger() {
+        InMemoryGateway gateway = new InMemoryGateway("email");
+        try (MicroBatcher batcher = new MicroBatcher("email", gateway, 100, Duration.ofMillis(20))) {
+            assertEquals("email: hello", batcher.submit("hello").join());
+            assertEquals(List.of(List.of("hello")), gateway.batches());
+        }
+    }
+
+    @Test
+    @DisplayName("A null message is rejected instead of failing the batch it would join")
+    void null_message_should_be_rejected() {
+        InMemoryGateway gateway = new InMemoryGateway("sms");
+        try (MicroBatcher batcher = new MicroBatcher("sms", gateway, 2, Duration.ofSeconds(10))) {
+            CompletableFuture<String> first = batcher.submit("a");
+            assertThrows(IllegalArgumentException.class, () -> batcher.submit(null));
+            CompletableFuture<String> second = batcher.submit("b");
+
+            assertEquals("sms: a", first.join());
+            assertEquals("sms: b", second.join());
+            assertEquals(List.of(List.of("a", "b")), gateway.batches());
+        }
+    }
+
+    @Test
+    @DisplayName("A failing gateway fails every future of the batch")
+    void failing_gateway_should_fail_all_batched_futures() {
+        BatchSender broken = messages -> { throw new IllegalStateException("gateway down"); };
+        try (MicroBatcher batcher = new MicroBatcher("sms", broken, 2, Duration.ofMillis(5))) {
+            CompletableFuture<String> first = batcher.submit("a");
+            CompletableFuture<String> second = batcher.submit("b");
+
+            assertThrows(CompletionException.class, first::join);
+            assertThrows(CompletionException.class, second::join);
+        }
+    }
+
+    @Test
+    @DisplayName("An Error from the gateway fails the batch without killing the flusher")
+    void gateway_error_should_not_strand_later_batches() {
+        AtomicInteger calls = new AtomicInteger();
+        BatchSender flaky = messages -> {
+            if (calls.incrementAndGet() == 1) throw new AssertionError("gateway bug");
+            return messages;
+        };
+        try (MicroBatcher batcher = new MicroBatcher("sms", flaky, 1, Duration.ZERO)) {
+            CompletionException error = assertThrows(CompletionException.class, () -> batcher.submit("a").join());
+            assertInstanceOf(AssertionError.class, error.getCause());
+            assertEquals("b", batcher.submit("b").orTimeout(5, TimeUnit.SECONDS).join());
+        }
+    }
+
+    @Test
+    @DisplayName("Submissions racing with close are either delivered or failed, never stranded")
+    void submit_racing_close_should_always_complete() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            MicroBatcher batcher = new MicroBatcher("sms", messages -> messages, 16, Duration.ofMillis(1));
+            List<CompletableFuture<String>> results = new CopyOnWriteArrayList<>();
+            CountDownLatch started = new CountDownLatch(4);
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                producers.add(Thread.ofPlatform().start(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 500; i++) {
+                        results.add(batcher.submit("m" + i));
+                    }
+                }));
+            }
+            started.await();
+            batcher.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            CompletableFuture.allOf(results.stream()
+                    .map(future -> future.handle((value, error) -> value))
+                    .toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("The per-channel stage routes case-insensitively and passes unknown channels through")
+    void batching_service_should_route_per_channel() {
+        Map<String, InMemoryGateway> gateways = Map.of("email", new InMemoryGateway("email"), "sms", new InMemoryGateway("sms"));
+        try (BatchingNotificationService service = new BatchingNotificationService(gateways, 8, Duration.ofMillis(5))) {
+            assertEquals("email: hi", service.notifyUser("EMAIL", "hi").join());
+            assertEquals("sms: hi", service.notifyUser("sms", "hi").join());
+            assertEquals("hi", service.notifyUser("push", "hi").join());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ClassIndex {
+
+    public static final String LOCATION = "META-INF/class-index/";
+
+    static final String FIELD_SEPARATOR = "\t";
+    static final String SUPERTYPE_SEPARATOR = ",";
+
+    public enum Kind {
+        CLASS, ABSTRACT_CLASS, INTERFACE, ENUM, RECORD, ANNOTATION;
+
+        public boolean isContract() {
+            return this == INTERFACE || this == ABSTRACT_CLASS;
+        }
+    }
+
+    public record Entry(String name, Kind kind, List<String> supertypes) {
+        public String simpleName() {
+            return name.substring(name.lastIndexOf('.') + 1);
+        }
+
+        public Class<?> load() {
+            try {
+                return Class.forName(name, false, ClassIndex.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("indexed class is missing from the classpath: " + name, e);
+            }
+        }
+    }
+
+    private static final Map<String, List<Entry>> ENTRIES = new ConcurrentHashMap<>();
+    private static final Map<String, List<Class<?>>> CLASSES = new ConcurrentHashMap<>();
+
+    private ClassIndex() {
+    }
+
+    public static List<Entry> entries(String packageName) {
+        return ENTRIES.computeIfAbsent(packageName, ClassIndex::read);
+    }
+
+    public static List<Class<?>> classes(String packageName) {
+        return CLASSES.computeIfAbsent(packageName, name -> entries(name).stream().<Class<?>>map(Entry::load).toList());
+    }
+
+    public static List<String> simpleNames(String packageName) {
+        return entries(packageName).stream().map(Entry::simpleName).toList();
+    }
+
+    public static List<Entry> contracts(String packageName) {
+        return entries(packageName).stream().filter(entry -> entry.kind().isContract()).toList();
+    }
+
+    static String resourceName(String packageName) {
+        return LOCATION + packageName + ".idx";
+    }
+
+    private static List<Entry> read(String packageName) {
+        String resource = resourceName(packageName);
+        try (InputStream in = ClassIndex.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("no class index for package " + packageName + " at " + resource);
+            }
+            List<Entry> entries = new ArrayList<>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isEmpty()) continue;
+                String[] fields = line.split(FIELD_SEPARATOR, -1);
+                if (fields.length != 3) {
+                    throw new IllegalStateException("malformed class index line in " + resource + ": " + line);
+                }
+                List<String> supertypes = fields[2].isEmpty() ? List.of() : Arrays.asList(fields[2].split(SUPERTYPE_SEPARATOR));
+                entries.add(new Entry(fields[0], Kind.valueOf(fields[1]), List.copyOf(supertypes)));
+            }
+            return List.copyOf(entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read class index " + resource, e);
+        }
+    }
+}
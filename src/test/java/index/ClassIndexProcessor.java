@@ -0,0 +1,92 @@
+package index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@SupportedAnnotationTypes("*")
+public class ClassIndexProcessor extends AbstractProcessor {
+
+    private final Map<String, Map<String, String>> packages = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (Element element : round.getRootElements()) {
+            if (element instanceof TypeElement type) {
+                PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+                packages.computeIfAbsent(pkg.getQualifiedName().toString(), name -> new TreeMap<>())
+                        .put(processingEnv.getElementUtils().getBinaryName(type).toString(), describe(type));
+            }
+        }
+        if (round.processingOver()) {
+            packages.forEach(this::write);
+        }
+        return false;
+    }
+
+    private String describe(TypeElement type) {
+        List<String> supertypes = new ArrayList<>();
+        addSupertype(type.getSuperclass(), supertypes);
+        for (TypeMirror contract : type.getInterfaces()) {
+            addSupertype(contract, supertypes);
+        }
+        return kindOf(type) + ClassIndex.FIELD_SEPARATOR + String.join(ClassIndex.SUPERTYPE_SEPARATOR, supertypes);
+    }
+
+    private void addSupertype(TypeMirror supertype, List<String> out) {
+        if (supertype.getKind() != TypeKind.DECLARED) return;
+        TypeElement element = (TypeElement) ((DeclaredType) supertype).asElement();
+        String name = processingEnv.getElementUtils().getBinaryName(element).toString();
+        if (!name.equals("java.lang.Object") && !name.equals("java.lang.Enum") && !name.equals("java.lang.Record")) {
+            out.add(name);
+        }
+    }
+
+    private static ClassIndex.Kind kindOf(TypeElement type) {
+        return switch (type.getKind()) {
+            case INTERFACE -> ClassIndex.Kind.INTERFACE;
+            case ANNOTATION_TYPE -> ClassIndex.Kind.ANNOTATION;
+            case ENUM -> ClassIndex.Kind.ENUM;
+            case RECORD -> ClassIndex.Kind.RECORD;
+            default -> type.getModifiers().contains(Modifier.ABSTRACT) ? ClassIndex.Kind.ABSTRACT_CLASS : ClassIndex.Kind.CLASS;
+        };
+    }
+
+    private void write(String packageName, Map<String, String> types) {
+        try {
+            FileObject resource = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", ClassIndex.resourceName(packageName));
+            try (Writer out = resource.openWriter()) {
+                for (Map.Entry<String, String> type : types.entrySet()) {
+                    out.write(type.getKey() + ClassIndex.FIELD_SEPARATOR + type.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "cannot write class index for " + packageName + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Build-time class index tests")
+class ClassIndexTest {
+
+    @Test
+    @DisplayName("Every top-level type of a package is indexed with its kind and direct supertypes")
+    void package_types_should_be_indexed() {
+        List<ClassIndex.Entry> entries = ClassIndex.entries("lsp");
+
+        ClassIndex.Entry ostrich = entries.stream().filter(e -> e.simpleName().equals("Ostrich")).findFirst().orElseThrow();
+        assertEquals(ClassIndex.Kind.CLASS, ostrich.kind());
+        assertEquals(List.of("lsp.Bird", "lsp.Walkable"), ostrich.supertypes());
+        assertTrue(ClassIndex.simpleNames("lsp").containsAll(List.of("Bird", "Flyable", "Walkable", "Sparrow", "Flock")));
+        assertFalse(ClassIndex.simpleNames("lsp").contains("FlockTest"));
+        assertTrue(ClassIndex.contracts("lsp").stream().allMatch(e -> e.load().isInterface()));
+    }
+
+    @Test
+    @DisplayName("Nested types are left out, matching one entry per source file")
+    void nested_types_should_not_be_indexed() {
+        assertTrue(ClassIndex.entries("ocp").stream().noneMatch(e -> e.name().contains("$")));
+        assertTrue(ClassIndex.simpleNames("ocp").contains("DiscountCache"));
+    }
+
+    @Test
+    @DisplayName("Lookups are cached and unknown packages fail loudly")
+    void lookups_should_be_cached() {
+        assertSame(ClassIndex.classes("isp"), ClassIndex.classes("isp"));
+        assertThrows(IllegalStateException.class, () -> ClassIndex.entries("no.such.pkg"));
+    }
+}
@@ -0,0 +1,62 @@
+package isp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Capability-indexed device registry tests")
+class DeviceRegistryTest {
+
+    @Test
+    @DisplayName("Devices are indexed by the capabilities they declare")
+    void devices_should_be_indexed_by_declared_capabilities() {
+        DeviceRegistry registry = new DeviceRegistry();
+        OldPrinter printer = new OldPrinter();
+        PhotoCopier copier = new PhotoCopier();
+
+        int printerId = registry.register(printer);
+        int copierId = registry.register(copier);
+
+        assertEquals(Capability.PRINT.bit(), registry.capabilityMask(printerId));
+        assertTrue(registry.supports(copierId, Capability.SCAN));
+        assertFalse(registry.supports(copierId, Capability.FAX));
+        assertEquals(List.of(printer, copier), registry.devicesFor(Capability.PRINT));
+        assertEquals(List.of(copier), registry.devicesFor(Capability.SCAN));
+        assertFalse(registry.anySupports(Capability.FAX));
+    }
+
+    @Test
+    @DisplayName("Jobs are routed only to capable devices and unsupported jobs come back empty without throwing")
+    void jobs_should_only_reach_capable_devices() {
+        DeviceRegistry registry = new DeviceRegistry();
+        registry.register(new OldPrinter());
+        registry.register(new PhotoCopier());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Optional.of("scanning: doc"), registry.execute(Capability.SCAN, "doc"));
+            assertEquals(Optional.of("printing: doc"), registry.execute(Capability.PRINT, "doc"));
+        }
+        assertEquals(Optional.empty(), registry.execute(Capability.FAX, "doc"));
+        assertEquals(Optional.empty(), registry.deviceFor(Capability.FAX));
+    }
+
+    @Test
+    @DisplayName("Print jobs are spread round-robin over every printing device")
+    void print_jobs_should_round_robin() {
+        DeviceRegistry registry = new DeviceRegistry();
+        OldPrinter printer = new OldPrinter();
+        PhotoCopier copier = new PhotoCopier();
+        registry.register(printer);
+        registry.register(copier);
+
+        MultiFunctionDevice first = registry.deviceFor(Capability.PRINT).orElseThrow();
+        MultiFunctionDevice second = registry.deviceFor(Capability.PRINT).orElseThrow();
+
+        assertNotSame(first, second);
+        assertSame(first, registry.deviceFor(Capability.PRINT).orElseThrow());
+    }
+}
@@ -0,0 +1,135 @@
+package isp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Device job scheduler tests")
+class DeviceSchedulerTest {
+
+    @Test
+    @DisplayName("Submitted jobs complete with the device output")
+    void jobs_should_complete_with_device_output() {
+        DeviceRegistry registry = new DeviceRegistry();
+        registry.register(new OldPrinter());
+        registry.register(new PhotoCopier());
+
+        try (DeviceScheduler scheduler = new DeviceScheduler(registry)) {
+            assertEquals("printing: a", scheduler.submit(Capability.PRINT, "a").join());
+            assertEquals("scanning: b", scheduler.submit(Capability.SCAN, "b").join());
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> scheduler.submit(Capability.FAX, "c").join());
+            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("An idle capable device steals queued work from a stalled one")
+    void idle_device_should_steal_from_stalled_device() throws InterruptedException {
+        StalledPrinter stalled = new StalledPrinter();
+        DeviceRegistry registry = new DeviceRegistry();
+        registry.register(stalled);
+        registry.register(new PhotoCopier());
+
+        try (DeviceScheduler scheduler = new DeviceScheduler(registry)) {
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            do {
+                results.add(scheduler.submit(Capability.PRINT, "doc-" + results.size()));
+            } while (!stalled.started.await(1, TimeUnit.MILLISECONDS) && results.size() < 100);
+            assertEquals(0, stalled.started.getCount());
+            while (results.size() < 200) {
+                results.add(scheduler.submit(Capability.PRINT, "doc-" + results.size()));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (results.stream().filter(CompletableFuture::isDone).count() < 199 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+
+            assertEquals(199, results.stream().filter(CompletableFuture::isDone).count());
+            assertTrue(scheduler.stolen(1) > 0);
+            stalled.release.countDown();
+            for (int i = 0; i < 200; i++) {
+                assertEquals("printing: doc-" + i, results.get(i).join());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Every job accepted while the scheduler is closing completes or fails, none is lost")
+    void jobs_racing_close_should_never_be_lost() throws Exception {
+        DeviceRegistry registry = new DeviceRegistry();
+        registry.register(new OldPrinter());
+        registry.register(new PhotoCopier());
+
+        for (int round = 0; round < 50; round++) {
+            DeviceScheduler scheduler = new DeviceScheduler(registry);
+            List<CompletableFuture<String>> results = new CopyOnWriteArrayList<>();
+            CountDownLatch go = new CountDownLatch(1);
+            Thread submitter = Thread.ofPlatform().start(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    results.add(scheduler.submit(Capability.PRINT, "doc-" + i));
+                }
+            });
+            go.countDown();
+            scheduler.close();
+            submitter.join();
+
+            for (CompletableFuture<String> result : results) {
+                assertTrue(result.isDone());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("An Error thrown by a device fails its job and the device keeps serving")
+    void device_error_should_fail_job_and_keep_worker() throws Exception {
+        DeviceRegistry registry = new DeviceRegistry();
+        registry.register(new JammingPrinter());
+
+        try (DeviceScheduler scheduler = new DeviceScheduler(registry)) {
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> scheduler.submit(Capability.PRINT, "jam").get(10, TimeUnit.SECONDS));
+            assertInstanceOf(Error.class, error.getCause());
+            assertEquals("printing: doc", scheduler.submit(Capability.PRINT, "doc").get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static final class JammingPrinter extends OldPrinter {
+        @Override
+        public String print(String content) {
+            if (content.equals("jam")) throw new Error("paper jam");
+            return super.print(content);
+        }
+    }
+
+    private static final class StalledPrinter extends OldPrinter {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String print(String content) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.print(content);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package isp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Streaming print and scan tests")
+class DocumentStreamingTest {
+
+    @Test
+    @DisplayName("Streaming a file prepends the framing and copies the payload unchanged")
+    void file_documents_should_be_framed(@TempDir Path dir) throws Exception {
+        Path source = dir.resolve("doc.txt");
+        Path target = dir.resolve("printed.txt");
+        Files.writeString(source, "quarterly report");
+
+        try (FileChannel in = FileChannel.open(source);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            assertEquals(26, new OldPrinter().print(in, out));
+        }
+
+        assertEquals(new OldPrinter().print("quarterly report"), Files.readString(target));
+    }
+
+    @Test
+    @DisplayName("A file truncated while it is streamed ends the copy instead of spinning")
+    void truncated_file_should_not_spin(@TempDir Path dir) throws Exception {
+        Path source = dir.resolve("doc.txt");
+        Files.write(source, new byte[1 << 20]);
+
+        try (FileChannel in = FileChannel.open(source);
+             FileChannel truncator = FileChannel.open(source, StandardOpenOption.WRITE)) {
+            DiscardingSink sink = new DiscardingSink() {
+                int writes;
+
+                @Override
+                public int write(ByteBuffer src) {
+                    if (++writes == 2) {
+                        try {
+                            truncator.truncate(1024);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    return super.write(src);
+                }
+            };
+
+            long written = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> new OldPrinter().print(in, sink));
+
+            assertEquals(sink.bytes, written);
+            assertTrue(written < (1 << 20) + "printing: ".length());
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming a non-file channel matches the String API")
+    void channel_documents_should_match_string_api() {
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream("doc".getBytes(StandardCharsets.UTF_8)));
+
+        new PhotoCopier().scan(in, Channels.newChannel(printed));
+
+        assertEquals(new PhotoCopier().scan("doc"), printed.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Heap allocation stays flat while streaming a large document")
+    void large_documents_should_not_grow_the_heap() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PhotoCopier copier = new PhotoCopier();
+        copier.print(new GeneratedDocument(1 << 20), new DiscardingSink());
+
+        long size = 256L << 20;
+        DiscardingSink sink = new DiscardingSink();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        long written = copier.print(new GeneratedDocument(size), sink);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(size + "printing: ".length(), written);
+        assertEquals(written, sink.bytes);
+        assertTrue(allocated < 64 * 1024, "streaming allocated " + allocated + " bytes");
+    }
+
+    @Test
+    @DisplayName("Publisher variant emits the framing first and then relays every chunk")
+    void publisher_documents_should_be_framed() throws Exception {
+        StringBuilder received = new StringBuilder();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try (SubmissionPublisher<ByteBuffer> document = new SubmissionPublisher<>()) {
+            new OldPrinter().print(document).subscribe(new Flow.Subscriber<>() {
+                Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    received.append(StandardCharsets.UTF_8.decode(item.duplicate()));
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    done.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.complete(null);
+                }
+            });
+            document.submit(ByteBuffer.wrap("quarterly ".getBytes(StandardCharsets.UTF_8)));
+            document.submit(ByteBuffer.wrap("report".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        done.get(5, TimeUnit.SECONDS);
+        assertEquals("printing: quarterly report", received.toString());
+    }
+
+    @Test
+    @DisplayName("Publisher variant signals onError for a non-positive request, before or after the framing")
+    void publisher_documents_should_reject_non_positive_requests() throws Exception {
+        for (long[] demand : new long[][] {{0}, {-1}, {1, 0}, {2, -5}}) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            try (SubmissionPublisher<ByteBuffer> document = new SubmissionPublisher<>()) {
+                new OldPrinter().print(document).subscribe(new Flow.Subscriber<>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        for (long n : demand) {
+                            subscription.request(n);
+                        }
+                    }
+
+                    @Override
+                    public void onNext(ByteBuffer item) {
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        done.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        done.complete(null);
+                    }
+                });
+
+                ExecutionException error = assertThrows(ExecutionException.class, () -> done.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalArgumentException.class, error.getCause());
+            }
+        }
+    }
+
+    private static final class GeneratedDocument implements ReadableByteChannel {
+        private long remaining;
+
+        GeneratedDocument(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (remaining == 0) return -1;
+            int n = (int) Math.min(dst.remaining(), remaining);
+            dst.position(dst.position() + n);
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class DiscardingSink implements WritableByteChannel {
+        long bytes;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            bytes += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,14 +1,11 @@
 package isp;
 
+import index.ClassIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Method;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,15 +22,7 @@ class IspRefactoTest {
     @Test
     @DisplayName("Fat interface should no longer exist after refactor (no MultiFunctionDevice)")
     void after_refactor_fat_interface_should_not_exist_anymore() throws Exception {
-        Path srcPath = Paths.get("src/main/java/isp");
-        boolean hasMfd = false;
-        if (Files.exists(srcPath)) {
-            try (Stream<Path> files = Files.walk(srcPath)) {
-                hasMfd = files.filter(path -> path.toString().endsWith(".java"))
-                        .map(path -> path.getFileName().toString().replace(".java", ""))
-                        .anyMatch(className -> className.equals("MultiFunctionDevice"));
-            }
-        }
+        boolean hasMfd = ClassIndex.simpleNames("isp").contains("MultiFunctionDevice");
         assertFalse(hasMfd);
     }
 
@@ -52,21 +41,7 @@ class IspRefactoTest {
     @Test
     @DisplayName("Capabilities are exposed via segregated contracts (Printable, Scannable, Faxable)")
     void capabilities_should_be_exposed_via_segregated_contracts() throws Exception {
-        Path srcPath = Paths.get("src/main/java/isp");
-        List<Class<?>> classes = new ArrayList<>();
-
-        if (Files.exists(srcPath)) {
-            try (Stream<Path> files = Files.walk(srcPath)) {
-                files.filter(path -> path.toString().endsWith(".java"))
-                      .map(path -> path.getFileName().toString().replace(".java", ""))
-                      .forEach(className -> {
-                          try {
-                              classes.add(Class.forName("isp." + className));
-                          } catch (ClassNotFoundException e) {
-                          }
-                      });
-            }
-        }
+        List<Class<?>> classes = ClassIndex.classes("isp");
 
         Optional<Class<?>> printInterfaceOpt = classes.stream()
               .filter(Class::isInterface)
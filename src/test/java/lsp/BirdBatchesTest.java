@@ -0,0 +1,36 @@
+package lsp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sealed bird dispatch and kind-sorted batch tests")
+class BirdBatchesTest {
+
+    @Test
+    @DisplayName("Every bird moves according to its kind without throwing")
+    void move_should_dispatch_on_sealed_kind() {
+        assertEquals("flap", new Sparrow().move());
+        assertEquals("stride", new Ostrich().move());
+    }
+
+    @Test
+    @DisplayName("Batches group birds by kind so only flyers are asked to fly")
+    void batches_should_group_birds_by_kind() {
+        BirdBatches batches = BirdBatches.of(List.of(new Ostrich(), new Sparrow(), new Ostrich(), new Sparrow()));
+        List<String> flown = new ArrayList<>();
+        List<String> moved = new ArrayList<>();
+
+        batches.fly(flown::add);
+        batches.move(moved::add);
+
+        assertEquals(4, batches.size());
+        assertEquals(2, batches.flyers());
+        assertEquals(List.of("flap", "flap"), flown);
+        assertEquals(List.of("flap", "flap", "stride", "stride"), moved);
+    }
+}
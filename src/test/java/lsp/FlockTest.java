@@ -0,0 +1,67 @@
+package lsp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Structure-of-arrays flock tests")
+class FlockTest {
+
+    @Test
+    @DisplayName("Capabilities come from the Flyable and Walkable roles")
+    void capabilities_should_follow_roles() {
+        Flock flock = new Flock(1);
+        int sparrow = flock.add(new Sparrow(), 0, 0, 0);
+        int ostrich = flock.add(new Ostrich(), 0, 0, 0);
+
+        assertEquals(Flock.KIND_SPARROW, flock.kind(sparrow));
+        assertEquals(Flock.KIND_OSTRICH, flock.kind(ostrich));
+        assertTrue(flock.flies(sparrow));
+        assertFalse(flock.flies(ostrich));
+        assertTrue(flock.walks(ostrich));
+        assertEquals(1, flock.count(Flock.FLIES));
+        assertEquals(2, flock.count(Flock.WALKS));
+    }
+
+    @Test
+    @DisplayName("A tick moves flyers into the air and keeps walkers on the ground without throwing")
+    void tick_should_move_birds_by_capability() {
+        Flock flock = new Flock(4);
+        int sparrow = flock.add(new Sparrow(), 0, 0, 0);
+        int ostrich = flock.add(new Ostrich(), 0, 0, (float) (Math.PI / 2));
+
+        for (int i = 0; i < 10; i++) {
+            flock.tick(0.1f);
+        }
+
+        assertEquals(12.0f, flock.x(sparrow), 1e-3);
+        assertTrue(flock.altitude(sparrow) > 0);
+        assertEquals(4.0f, flock.y(ostrich), 1e-3);
+        assertEquals(0.0f, flock.altitude(ostrich));
+    }
+
+    @Test
+    @DisplayName("Parallel ticks produce the same positions as sequential ticks")
+    void parallel_tick_should_match_sequential() {
+        int birds = Flock.PARALLEL_BLOCK * 3 + 17;
+        Flock sequential = new Flock(16);
+        Flock parallel = new Flock(16);
+        for (int i = 0; i < birds; i++) {
+            Bird bird = i % 3 == 0 ? new Ostrich() : new Sparrow();
+            sequential.add(bird, i, -i, i * 0.01f);
+            parallel.add(bird, i, -i, i * 0.01f);
+        }
+
+        for (int step = 0; step < 5; step++) {
+            sequential.tick(0.05f);
+            parallel.tickParallel(0.05f);
+        }
+
+        for (int i = 0; i < birds; i++) {
+            assertEquals(sequential.x(i), parallel.x(i));
+            assertEquals(sequential.y(i), parallel.y(i));
+            assertEquals(sequential.altitude(i), parallel.altitude(i));
+        }
+    }
+}
@@ -1,14 +1,11 @@
 package lsp;
 
+import index.ClassIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Method;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,21 +42,7 @@ class LspRefactoTest {
     @Test
     @DisplayName("Flying capability is extracted behind a Flyable contract with a fly() method")
     void flying_capability_should_be_exposed_via_contract() throws Exception {
-        Path srcPath = Paths.get("src/main/java/lsp");
-        List<Class<?>> classes = new ArrayList<>();
-
-        if (Files.exists(srcPath)) {
-            try (Stream<Path> files = Files.walk(srcPath)) {
-                files.filter(path -> path.toString().endsWith(".java"))
-                        .map(path -> path.getFileName().toString().replace(".java", ""))
-                        .forEach(className -> {
-                            try {
-                                classes.add(Class.forName("lsp." + className));
-                            } catch (ClassNotFoundException e) {
-                            }
-                        });
-            }
-        }
+        List<Class<?>> classes = ClassIndex.classes("lsp");
 
         boolean hasFlyable = classes.stream().anyMatch(clazz -> clazz.isInterface() && clazz.getSimpleName().equals("Flyable"));
         assertTrue(hasFlyable);
@@ -0,0 +1,192 @@
+package metrics;
+
+import dip.ChannelRegistry;
+import dip.NotificationService;
+import isp.MultiFunctionDevice;
+import isp.OldPrinter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import ocp.DiscountCalculator;
+import ocp.TierRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import srp.Invoice;
+import srp.InvoiceStore;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Instrumented component tests")
+class InstrumentedTest {
+
+    private final List<MetricsRegistry> exposed = new ArrayList<>();
+
+    @AfterEach
+    void unregisterMBeans() {
+        for (MetricsRegistry metrics : exposed) {
+            metrics.unregisterJmx();
+        }
+    }
+
+    @Test
+    @DisplayName("Wrapped components keep their behavior and record calls and errors")
+    void wrappers_should_record_calls_and_errors(@TempDir Path dir) {
+        MetricsRegistry metrics = new MetricsRegistry(true, 1);
+        DiscountCalculator calculator = Instrumented.discountCalculator(TierRegistry.withDefaults(), metrics);
+        NotificationService notifications = Instrumented.notificationService(ChannelRegistry.withDefaults(), metrics);
+        MultiFunctionDevice printer = Instrumented.device(new OldPrinter(), metrics);
+
+        assertEquals(new DiscountCalculator().computeDiscount("VIP", 100), calculator.computeDiscount("VIP", 100));
+        assertEquals(new NotificationService().notifyUser("email", "hi"), notifications.notifyUser("email", "hi"));
+        assertEquals("printing: doc", printer.print("doc"));
+        assertThrows(UnsupportedOperationException.class, () -> printer.scan("doc"));
+        try (InvoiceStore store = Instrumented.invoiceStore(dir.resolve("invoices.txt"), 1, Duration.ZERO, metrics)) {
+            store.append(new Invoice("ACME", 10.0));
+        }
+
+        var snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.get("ocp.DiscountCalculator.computeDiscount").calls());
+        assertEquals(1, snapshot.get("dip.NotificationService.notifyUser").calls());
+        assertEquals(1, snapshot.get("srp.InvoiceStore.append").calls());
+        assertEquals(1, snapshot.get("isp.OldPrinter.print").calls());
+        assertEquals(1, snapshot.get("isp.OldPrinter.scan").errors());
+        assertTrue(snapshot.get("srp.InvoiceStore.append").maxNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("An Error thrown by a wrapped component is counted as a failed call and rethrown")
+    void errors_should_be_counted_as_failures() {
+        MetricsRegistry metrics = new MetricsRegistry(true, 1);
+        MultiFunctionDevice printer = Instrumented.device(new OverheatedPrinter(), metrics);
+
+        assertThrows(AssertionError.class, () -> printer.print("doc"));
+
+        Timer.Snapshot print = metrics.snapshot().get("isp.OverheatedPrinter.print");
+        assertEquals(1, print.calls());
+        assertEquals(1, print.errors());
+        assertTrue(print.maxNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Disabled metrics record nothing")
+    void disabled_metrics_should_record_nothing() {
+        MetricsRegistry metrics = new MetricsRegistry(false);
+        DiscountCalculator calculator = Instrumented.discountCalculator(TierRegistry.withDefaults(), metrics);
+
+        calculator.computeDiscount("VIP", 100);
+        metrics.setEnabled(true);
+        calculator.computeDiscount("VIP", 100);
+
+        assertEquals(1, metrics.snapshot().get("ocp.DiscountCalculator.computeDiscount").calls());
+    }
+
+    @Test
+    @DisplayName("Every call is counted while only a sample of calls is timed")
+    void calls_should_be_counted_exactly_and_timed_by_sampling() {
+        MetricsRegistry metrics = new MetricsRegistry(true, 8);
+        MultiFunctionDevice printer = Instrumented.device(new OldPrinter(), metrics);
+
+        for (int i = 0; i < 8_000; i++) {
+            printer.print("doc");
+        }
+
+        Timer.Snapshot print = metrics.snapshot().get("isp.OldPrinter.print");
+        assertEquals(8_000, print.calls());
+        assertTrue(print.maxNanos() > 0);
+        assertThrows(IllegalArgumentException.class, () -> new MetricsRegistry(true, 3));
+    }
+
+    @Test
+    @DisplayName("Timers are exposed as JMX MBeans, including timers created after registration")
+    void timers_should_be_exposed_through_jmx() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        metrics.timer("before").record(1_000, false);
+        metrics.registerJmx("kata.test.jmx");
+        exposed.add(metrics);
+        metrics.timer("after").record(2_000, true);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(1L, server.getAttribute(new ObjectName("kata.test.jmx:type=Timer,name=\"before\""), "Calls"));
+        assertEquals(1L, server.getAttribute(new ObjectName("kata.test.jmx:type=Timer,name=\"after\""), "Errors"));
+        assertEquals(true, server.getAttribute(new ObjectName("kata.test.jmx:type=Registry,name=\"registry\""), "Enabled"));
+
+        metrics.unregisterJmx();
+        assertTrue(server.queryNames(new ObjectName("kata.test.jmx:*"), null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Timers created while JMX registration runs are registered exactly once")
+    void concurrent_timer_creation_should_register_each_timer_once() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (int round = 0; round < 20; round++) {
+            MetricsRegistry metrics = new MetricsRegistry(true);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Throwable> errors = new CopyOnWriteArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        go.await();
+                        for (int i = 0; i < 50; i++) {
+                            metrics.timer("timer-" + ((i + offset) % 50));
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }));
+            }
+            go.countDown();
+            metrics.registerJmx("kata.test.race");
+            exposed.add(metrics);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(List.of(), errors);
+            assertEquals(50, server.queryNames(new ObjectName("kata.test.race:type=Timer,*"), null).size());
+            metrics.unregisterJmx();
+            assertTrue(server.queryNames(new ObjectName("kata.test.race:*"), null).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Each timed call emits a JFR event while a recording is running")
+    void timed_calls_should_emit_jfr_events(@TempDir Path dir) throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        Timer timer = metrics.timer("jfr");
+        Path file = dir.resolve("calls.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("kata.Call").withThreshold(Duration.ZERO);
+            recording.start();
+            timer.record(1_500, false);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.size());
+        assertEquals("jfr", events.get(0).getString("timer"));
+        assertEquals(Duration.ofNanos(1_500), events.get(0).getDuration("latency"));
+    }
+
+    private static final class OverheatedPrinter extends OldPrinter {
+        @Override
+        public String print(String content) {
+            throw new AssertionError("print head overheated");
+        }
+    }
+}
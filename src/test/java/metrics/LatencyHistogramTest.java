@@ -0,0 +1,41 @@
+package metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Log-bucketed latency histogram tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Buckets are contiguous and keep every value within about 6% of its bound")
+    void buckets_should_be_contiguous_with_bounded_error() {
+        int previous = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket == previous || bucket == previous + 1, "gap at " + value);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            assertTrue(upper >= value && upper - value <= value / 16 + 1, "bound " + upper + " for " + value);
+            previous = bucket;
+        }
+        assertTrue(LatencyHistogram.bucketOf(Long.MAX_VALUE) < LatencyHistogram.BUCKETS);
+    }
+
+    @Test
+    @DisplayName("Percentiles track a uniform distribution")
+    void percentiles_should_track_recorded_values() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 100L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(10_000, snapshot.count());
+        assertEquals(1_000_000, snapshot.max());
+        assertEquals(500_000, snapshot.percentile(0.5), 500_000 / 16.0);
+        assertEquals(990_000, snapshot.percentile(0.99), 990_000 / 16.0);
+        assertEquals(1_000_000, snapshot.percentile(1.0));
+    }
+}
@@ -0,0 +1,125 @@
+package money;
+
+import ocp.BatchDiscountCalculator;
+import ocp.DiscountCalculator;
+import ocp.TierRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import srp.Invoice;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fixed-point money tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Applying a rate matches BigDecimal for every rounding mode")
+    void apply_rate_should_match_big_decimal() {
+        SplittableRandom random = new SplittableRandom(42);
+        RoundingMode[] modes = {RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+                RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN};
+        for (int i = 0; i < 20_000; i++) {
+            long minor = random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L);
+            long ppm = random.nextInt(0, 1_000_001);
+            for (RoundingMode mode : modes) {
+                long expected = BigDecimal.valueOf(minor).multiply(BigDecimal.valueOf(ppm))
+                        .divide(BigDecimal.valueOf(MoneyMath.PPM), 0, mode).longValueExact();
+                assertEquals(expected, MoneyMath.applyRate(minor, ppm, mode), minor + " * " + ppm + " " + mode);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Half-even rounding sends exact halves to the even neighbour")
+    void half_even_should_round_ties_to_even() {
+        assertEquals(2, MoneyMath.divide(5, 2, RoundingMode.HALF_EVEN));
+        assertEquals(4, MoneyMath.divide(7, 2, RoundingMode.HALF_EVEN));
+        assertEquals(-2, MoneyMath.divide(-5, 2, RoundingMode.HALF_EVEN));
+        assertEquals(3, MoneyMath.divide(5, 2, RoundingMode.HALF_UP));
+        assertEquals(-3, MoneyMath.divide(5, -2, RoundingMode.HALF_UP));
+        assertThrows(ArithmeticException.class, () -> MoneyMath.divide(5, 2, RoundingMode.UNNECESSARY));
+        assertEquals(2, MoneyMath.divide(4, 2, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    @DisplayName("Formatting and parsing round-trip two decimal places")
+    void format_and_parse_should_round_trip() {
+        assertEquals("42.50", Money.ofMinor(4250).toString());
+        assertEquals("0.05", Money.ofMinor(5).toString());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+        assertEquals("-12.30", Money.ofMinor(-1230).toString());
+        assertEquals(Money.ofMinor(4250), Money.parse("42.5"));
+        assertEquals(Money.ofMinor(-7), Money.parse("-0.07"));
+        assertEquals(Money.ofMinor(1200), Money.parse("12"));
+        assertEquals(Money.ofMinor(Long.MIN_VALUE + 8), Money.parse(Money.ofMinor(Long.MIN_VALUE + 8).toString()));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1.234"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1,00"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+    }
+
+    @Test
+    @DisplayName("Arithmetic overflow is reported instead of wrapping")
+    void overflow_should_throw() {
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> MoneyMath.sum(new long[]{Long.MAX_VALUE, 1}));
+        assertEquals(Long.MAX_VALUE, MoneyMath.applyRate(Long.MAX_VALUE, MoneyMath.PPM, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    @DisplayName("Money discounts are exact where double discounts drift")
+    void money_discount_should_be_exact() {
+        DiscountCalculator calculator = new DiscountCalculator();
+        assertEquals(Money.parse("2.00"), calculator.computeDiscount("PREMIUM", Money.parse("20.05")));
+        assertEquals(Money.parse("2.02"), calculator.computeDiscount("PREMIUM", Money.parse("20.15")));
+        assertEquals(Money.parse("20.00"), calculator.computeDiscount("vip", Money.parse("100")));
+        assertEquals(Money.ZERO, calculator.computeDiscount("GOLD", Money.parse("100")));
+
+        Money total = Money.ZERO;
+        for (int i = 0; i < 1000; i++) {
+            total = total.plus(calculator.computeDiscount("PREMIUM", Money.parse("0.10")));
+        }
+        assertEquals(Money.parse("10.00"), total);
+    }
+
+    @Test
+    @DisplayName("Primitive batches agree with the per-call Money path")
+    void batch_should_match_single_calls() {
+        TierRegistry registry = TierRegistry.withDefaults();
+        registry.register("STAFF", 0.125);
+        BatchDiscountCalculator batch = new BatchDiscountCalculator(registry, ForkJoinPool.commonPool(), 64);
+        DiscountCalculator single = new DiscountCalculator(registry);
+        SplittableRandom random = new SplittableRandom(7);
+        int size = 1000;
+        byte[] tiers = new byte[size];
+        long[] amounts = new long[size];
+        long[] out = new long[size];
+        for (int i = 0; i < size; i++) {
+            tiers[i] = (byte) random.nextInt(-1, registry.size());
+            amounts[i] = random.nextLong(0, 10_000_000);
+        }
+
+        batch.computeDiscounts(tiers, amounts, out);
+
+        for (int i = 0; i < size; i++) {
+            Money expected = single.computeDiscount(registry.byCode(tiers[i]), Money.ofMinor(amounts[i]));
+            assertEquals(expected.minorUnits(), out[i], "row " + i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> batch.computeDiscounts(tiers, amounts, new long[1]));
+    }
+
+    @Test
+    @DisplayName("Invoices built from Money render the exact amount")
+    void invoice_should_render_exact_amount() {
+        Invoice exact = new Invoice("Alice", Money.parse("42.5"));
+        assertEquals("Alice owes 42.50", exact.summary());
+        assertEquals("Alice owes 42.50", exact.renderTo(new StringBuilder()).toString());
+        assertEquals(42.5, exact.getAmount());
+        assertEquals(Money.ofMinor(10), new Invoice("Bob", 0.1).getMoney());
+        assertEquals("Bob owes 0.1", new Invoice("Bob", 0.1).summary());
+    }
+}
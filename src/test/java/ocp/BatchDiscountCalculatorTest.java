@@ -0,0 +1,77 @@
+package ocp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Batch discount calculator tests")
+class BatchDiscountCalculatorTest {
+
+    private final DiscountCalculator single = new DiscountCalculator();
+
+    @Test
+    @DisplayName("Batch results match computeDiscount for every known and unknown tier")
+    void batch_should_match_single_item_computation() {
+        String[] types = {"standard", "PREMIUM", "Vip", "gold", null};
+        BatchDiscountCalculator batch = new BatchDiscountCalculator();
+        byte[] tiers = new byte[types.length];
+        double[] amounts = new double[types.length];
+        for (int i = 0; i < types.length; i++) {
+            tiers[i] = batch.tierCode(types[i]);
+            amounts[i] = 100.0 + i;
+        }
+        double[] out = new double[types.length];
+
+        batch.computeDiscounts(tiers, amounts, out);
+
+        for (int i = 0; i < types.length; i++) {
+            assertEquals(single.computeDiscount(types[i], amounts[i]), out[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Large batches split across the fork-join pool give the same results")
+    void large_batch_should_be_split_across_workers() {
+        int size = 100_000;
+        byte[] tiers = new byte[size];
+        double[] amounts = new double[size];
+        for (int i = 0; i < size; i++) {
+            tiers[i] = (byte) (i % 4 - 1);
+            amounts[i] = i * 0.5;
+        }
+        double[] out = new double[size];
+
+        new BatchDiscountCalculator(TierRegistry.withDefaults(), ForkJoinPool.commonPool(), 1024).computeDiscounts(tiers, amounts, out);
+
+        assertEquals(0.0, out[0]);
+        assertEquals(0.0, out[1]);
+        assertEquals(amounts[2] * 0.10, out[2]);
+        assertEquals(amounts[size - 1] * 0.20, out[size - 1]);
+    }
+
+    @Test
+    @DisplayName("Off-heap DoubleBuffer amounts are read from the buffer position")
+    void direct_buffer_amounts_should_be_supported() {
+        DoubleBuffer amounts = ByteBuffer.allocateDirect(4 * Double.BYTES).asDoubleBuffer();
+        amounts.put(new double[]{999.0, 100.0, 100.0, 100.0}).flip().position(1);
+        byte[] tiers = {BatchDiscountCalculator.STANDARD, BatchDiscountCalculator.PREMIUM, BatchDiscountCalculator.VIP};
+        double[] out = new double[3];
+
+        new BatchDiscountCalculator().computeDiscounts(tiers, amounts, out);
+
+        assertArrayEquals(new double[]{0.0, 10.0, 20.0}, out);
+        assertEquals(1, amounts.position());
+    }
+
+    @Test
+    @DisplayName("Mismatched batch lengths are rejected")
+    void mismatched_lengths_should_be_rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchDiscountCalculator().computeDiscounts(new byte[2], new double[3], new double[2]));
+    }
+}
@@ -0,0 +1,120 @@
+package ocp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Discount result cache tests")
+class DiscountCacheTest {
+
+    @Test
+    @DisplayName("Repeated (tier, amount) pairs are served from the cache")
+    void repeated_lookups_should_hit() {
+        TierRegistry registry = TierRegistry.withDefaults();
+        AtomicInteger computed = new AtomicInteger();
+        DiscountCache cache = new DiscountCache(registry, 64, (tier, amount) -> {
+            computed.incrementAndGet();
+            return registry.current(tier).apply(amount);
+        });
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(20.0, cache.computeDiscount("VIP", 100.0));
+            assertEquals(10.0, cache.computeDiscount(registry.resolve("premium"), 100.0));
+        }
+
+        assertEquals(2, computed.get());
+        assertEquals(new DiscountCache.Stats(18, 2, 0), cache.stats());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("The cache stays within its capacity and counts evictions")
+    void cache_should_stay_bounded() {
+        DiscountCache cache = new DiscountCache(TierRegistry.withDefaults(), 100);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i * 0.2, cache.computeDiscount("VIP", i), 1e-9);
+        }
+
+        assertEquals(128, cache.capacity());
+        assertTrue(cache.size() <= cache.capacity());
+        assertTrue(cache.stats().evictions() >= 10_000 - cache.capacity());
+        assertEquals(64, new DiscountCache(TierRegistry.withDefaults(), 64).capacity());
+        assertThrows(IllegalArgumentException.class,
+                () -> new DiscountCache(TierRegistry.withDefaults(), DiscountCache.MAX_CAPACITY + 1));
+    }
+
+    @Test
+    @DisplayName("Changing tier rates invalidates cached discounts")
+    void rate_changes_should_invalidate_entries() {
+        TierRegistry registry = TierRegistry.withDefaults();
+        DiscountCache cache = new DiscountCache(registry, 64);
+        assertEquals(20.0, cache.computeDiscount("VIP", 100.0));
+
+        registry.updateRates(Map.of("VIP", 0.30));
+
+        assertEquals(0, cache.size());
+        assertEquals(30.0, cache.computeDiscount("VIP", 100.0), 1e-9);
+        assertEquals(30.0, cache.computeDiscount("VIP", 100.0), 1e-9);
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    @DisplayName("A rate update while a discount is being computed never leaves the old discount cached")
+    void rate_update_during_pricing_should_not_cache_stale_discount() {
+        TierRegistry registry = TierRegistry.withDefaults();
+        AtomicBoolean updated = new AtomicBoolean();
+        DiscountCache cache = new DiscountCache(registry, 64, (tier, amount) -> {
+            if (updated.compareAndSet(false, true)) {
+                registry.updateRates(Map.of("VIP", 0.30));
+            }
+            return tier.apply(amount);
+        });
+
+        assertEquals(20.0, cache.computeDiscount("VIP", 100.0), 1e-9);
+
+        assertEquals(30.0, cache.computeDiscount("VIP", 100.0), 1e-9);
+        assertEquals(30.0, cache.computeDiscount("VIP", 100.0), 1e-9);
+        assertEquals(new DiscountCache.Stats(1, 2, 0), cache.stats());
+    }
+
+    @Test
+    @DisplayName("Concurrent readers only ever see discounts from a published rate")
+    void concurrent_reads_should_see_consistent_discounts() throws Exception {
+        TierRegistry registry = TierRegistry.withDefaults();
+        DiscountCache cache = new DiscountCache(registry, 256);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; running.get(); i++) {
+                    double amount = i % 500;
+                    double discount = cache.computeDiscount("VIP", amount);
+                    if (discount != amount * 0.20 && discount != amount * 0.25) {
+                        failure.compareAndSet(null, amount + " -> " + discount);
+                    }
+                }
+            }));
+        }
+        for (int i = 0; i < 200; i++) {
+            registry.updateRates(Map.of("VIP", i % 2 == 0 ? 0.25 : 0.20));
+            Thread.sleep(1);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertTrue(cache.stats().hits() > 0);
+    }
+}
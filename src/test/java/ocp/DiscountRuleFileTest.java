@@ -0,0 +1,119 @@
+package ocp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hot-reloadable discount rule file tests")
+class DiscountRuleFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Rates from the rule file replace the built-in ones and add new tiers")
+    void reload_should_swap_in_rates_from_file() throws Exception {
+        Path rules = Files.writeString(dir.resolve("rules.properties"), "# rates\nVIP=0.25\ngold = 0.15\n");
+        TierRegistry registry = TierRegistry.withDefaults();
+        DiscountCalculator calculator = new DiscountCalculator(registry);
+        CustomerTier vipBeforeReload = registry.resolve("VIP");
+
+        assertTrue(new DiscountRuleFile(rules, registry).reloadIfChanged());
+
+        assertEquals(25.0, calculator.computeDiscount("vip", 100.0));
+        assertEquals(25.0, calculator.computeDiscount(vipBeforeReload, 100.0));
+        assertEquals(15.0, calculator.computeDiscount("GOLD", 100.0));
+        assertEquals(100.0 * 0.10, calculator.computeDiscount("PREMIUM", 100.0));
+        assertEquals(BatchDiscountCalculator.VIP, registry.resolve("VIP").code());
+    }
+
+    @Test
+    @DisplayName("Unchanged files are not reloaded and invalid files keep the previous snapshot")
+    void invalid_file_should_keep_previous_snapshot() throws Exception {
+        Path rules = Files.writeString(dir.resolve("rules.properties"), "VIP=0.30\n");
+        TierRegistry registry = TierRegistry.withDefaults();
+        DiscountRuleFile ruleFile = new DiscountRuleFile(rules, registry);
+        ruleFile.reloadIfChanged();
+        long version = registry.version();
+
+        assertFalse(ruleFile.reloadIfChanged());
+
+        Files.writeString(rules, "VIP=abc\n");
+        Files.setLastModifiedTime(rules, FileTime.from(Instant.now().plusSeconds(5)));
+
+        assertThrows(IllegalArgumentException.class, ruleFile::reloadIfChanged);
+        assertEquals(version, registry.version());
+        assertEquals(0.30, registry.resolve("VIP").rate());
+    }
+
+    @Test
+    @DisplayName("The watcher picks up file changes in the background")
+    void watcher_should_reload_on_change() throws Exception {
+        Path rules = Files.writeString(dir.resolve("rules.properties"), "PREMIUM=0.10\n");
+        TierRegistry registry = TierRegistry.withDefaults();
+        try (DiscountRuleFile ruleFile = new DiscountRuleFile(rules, registry)) {
+            ruleFile.watch(Duration.ofMillis(10));
+            Files.writeString(rules, "PREMIUM=0.12\n");
+            Files.setLastModifiedTime(rules, FileTime.from(Instant.now().plusSeconds(5)));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (registry.resolve("PREMIUM").rate() != 0.12 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        assertEquals(0.12, registry.resolve("PREMIUM").rate());
+    }
+
+    @Test
+    @DisplayName("Same-size edits are detected even when the modification time does not move")
+    void same_size_edit_should_be_detected_by_content() throws Exception {
+        Path rules = Files.writeString(dir.resolve("rules.properties"), "VIP=0.30\n");
+        TierRegistry registry = TierRegistry.withDefaults();
+        DiscountRuleFile ruleFile = new DiscountRuleFile(rules, registry);
+        ruleFile.reloadIfChanged();
+        FileTime modified = Files.getLastModifiedTime(rules);
+
+        Files.writeString(rules, "VIP=0.31\n");
+        Files.setLastModifiedTime(rules, modified);
+
+        assertTrue(ruleFile.reloadIfChanged());
+        assertEquals(0.31, registry.resolve("VIP").rate());
+    }
+
+    @Test
+    @DisplayName("Tiers removed from the file fall back to the rate they had before the file set them")
+    void removed_tiers_should_revert_to_baseline() throws Exception {
+        Path rules = Files.writeString(dir.resolve("rules.properties"), "VIP=0.30\nGOLD=0.15\n");
+        TierRegistry registry = TierRegistry.withDefaults();
+        DiscountRuleFile ruleFile = new DiscountRuleFile(rules, registry);
+        ruleFile.reloadIfChanged();
+
+        Files.writeString(rules, "PREMIUM=0.12\n");
+        assertTrue(ruleFile.reloadIfChanged());
+
+        assertEquals(0.20, registry.resolve("VIP").rate());
+        assertEquals(0.0, registry.resolve("GOLD").rate());
+        assertEquals(0.12, registry.resolve("PREMIUM").rate());
+    }
+
+    @Test
+    @DisplayName("Tier handles from another registry are resolved by name, not by code")
+    void foreign_tier_handles_should_resolve_by_name() {
+        TierRegistry other = new TierRegistry();
+        CustomerTier foreignVip = other.register("VIP", 0.50);
+        DiscountCalculator calculator = new DiscountCalculator(TierRegistry.withDefaults());
+
+        assertEquals(0, foreignVip.code());
+        assertEquals(20.0, calculator.computeDiscount(foreignVip, 100.0));
+        assertEquals(0.0, calculator.computeDiscount(other.register("GOLD", 0.40), 100.0));
+    }
+}
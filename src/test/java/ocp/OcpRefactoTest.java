@@ -1,14 +1,11 @@
 package ocp;
 
+import index.ClassIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Method;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,22 +25,9 @@ class OcpRefactoTest {
     @Test
     @DisplayName("Responsibilities are extracted into dedicated classes with an apply(double) method")
     void responsibilities_should_be_extracted_to_dedicated_classes() throws Exception {
-        Path srcPath = Paths.get("src/main/java/ocp");
-        List<Class<?>> otherClasses = new ArrayList<>();
-
-        if (Files.exists(srcPath)) {
-            try (Stream<Path> files = Files.walk(srcPath)) {
-                files.filter(path -> path.toString().endsWith(".java"))
-                        .map(path -> path.getFileName().toString().replace(".java", ""))
-                        .filter(className -> !className.equals("DiscountCalculator"))
-                        .forEach(className -> {
-                            try {
-                                otherClasses.add(Class.forName("ocp." + className));
-                            } catch (ClassNotFoundException e) {
-                            }
-                        });
-            }
-        }
+        List<Class<?>> otherClasses = ClassIndex.classes("ocp").stream()
+                .filter(clazz -> !clazz.getSimpleName().equals("DiscountCalculator"))
+                .toList();
 
         Class<?>[] expectedParams = new Class<?>[]{double.class};
         boolean foundApplyMethod = otherClasses.stream()
@@ -68,21 +52,7 @@ class OcpRefactoTest {
     @Test
     @DisplayName("Discount strategies share a common contract (interface or abstract class)")
     void discount_strategies_should_share_common_contract() throws Exception {
-        Path srcPath = Paths.get("src/main/java/ocp");
-        List<Class<?>> allClasses = new ArrayList<>();
-
-        if (Files.exists(srcPath)) {
-            try (Stream<Path> files = Files.walk(srcPath)) {
-                files.filter(path -> path.toString().endsWith(".java"))
-                      .map(path -> path.getFileName().toString().replace(".java", ""))
-                      .forEach(className -> {
-                          try {
-                              allClasses.add(Class.forName("ocp." + className));
-                          } catch (ClassNotFoundException e) {
-                          }
-                      });
-            }
-        }
+        List<Class<?>> allClasses = ClassIndex.classes("ocp");
 
         boolean hasCommonContract = allClasses.stream()
               .anyMatch(clazz -> clazz.isInterface() ||
@@ -0,0 +1,79 @@
+package ocp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Customer tier registry tests")
+class TierRegistryTest {
+
+    @Test
+    @DisplayName("Built-in tiers resolve case-insensitively to the same handle")
+    void builtin_tiers_should_resolve_case_insensitively() {
+        TierRegistry registry = TierRegistry.withDefaults();
+
+        CustomerTier vip = registry.resolve("vip");
+
+        assertSame(vip, registry.resolve("VIP"));
+        assertSame(vip, registry.byCode(BatchDiscountCalculator.VIP));
+        assertEquals(20.0, vip.apply(100.0));
+        assertSame(CustomerTier.UNKNOWN, registry.resolve("gold"));
+        assertSame(CustomerTier.UNKNOWN, registry.resolve(null));
+    }
+
+    @Test
+    @DisplayName("Runtime-registered tiers are priced without touching the calculator")
+    void registered_tier_should_be_priced_by_calculator() {
+        TierRegistry registry = TierRegistry.withDefaults();
+        DiscountCalculator calculator = new DiscountCalculator(registry);
+
+        CustomerTier gold = registry.register("Gold", 0.15);
+
+        assertEquals(15.0, calculator.computeDiscount("GOLD", 100.0));
+        assertEquals(15.0, calculator.computeDiscount(gold, 100.0));
+        assertThrows(IllegalArgumentException.class, () -> registry.register("gold", 0.5));
+    }
+
+    @Test
+    @DisplayName("Concurrent registrations get distinct codes while lookups keep resolving")
+    void concurrent_registrations_should_not_lose_tiers() throws Exception {
+        TierRegistry registry = TierRegistry.withDefaults();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean lookupFailed = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                for (int i = 0; i < 25; i++) {
+                    registry.register("tier-" + offset + "-" + i, 0.01);
+                    if (registry.resolve("premium").rate() != 0.10) lookupFailed.set(true);
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(lookupFailed.get());
+        assertEquals(103, registry.size());
+        for (int code = 0; code < registry.size(); code++) {
+            assertEquals(code, registry.byCode(code).code());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package srp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class FakeSmtpServer implements AutoCloseable {
+
+    record Message(String to, String body) {}
+
+    private final ServerSocket server;
+    private final Thread acceptor;
+    private final List<Message> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+
+    FakeSmtpServer() throws IOException {
+        server = new ServerSocket(0);
+        acceptor = Thread.ofPlatform().daemon().name("fake-smtp").start(this::acceptLoop);
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    void failNext(int deliveries) {
+        failuresToInject.set(deliveries);
+    }
+
+    List<Message> messages() {
+        return List.copyOf(messages);
+    }
+
+    @Override
+    public void close() throws Exception {
+        server.close();
+        acceptor.join();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                handle(socket);
+            } catch (IOException e) {
+                if (server.isClosed()) return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        reply(out, "220 fake-smtp ready");
+        String recipient = null;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.startsWith("HELO") || line.startsWith("EHLO") || line.startsWith("MAIL FROM")) {
+                reply(out, "250 OK");
+            } else if (line.startsWith("RCPT TO:<")) {
+                recipient = line.substring("RCPT TO:<".length(), line.length() - 1);
+                reply(out, "250 OK");
+            } else if (line.equals("DATA")) {
+                reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                String body = readData(in);
+                if (failuresToInject.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    reply(out, "451 Try again later");
+                } else {
+                    messages.add(new Message(recipient, body));
+                    reply(out, "250 Queued");
+                }
+            } else if (line.equals("QUIT")) {
+                reply(out, "221 Bye");
+                return;
+            } else {
+                reply(out, "500 Unknown command");
+            }
+        }
+    }
+
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder body = new StringBuilder();
+        boolean inHeaders = true;
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            if (inHeaders) {
+                inHeaders = !line.isEmpty();
+                continue;
+            }
+            if (body.length() > 0) body.append('\n');
+            body.append(line.startsWith("..") ? line.substring(1) : line);
+        }
+        return body.toString();
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,140 @@
+package srp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Invoice email outbox tests")
+class InvoiceEmailOutboxTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Invoices are delivered over SMTP, retried on transient failures and deduplicated by id")
+    void outbox_should_deliver_with_retries_and_dedupe() throws Exception {
+        try (FakeSmtpServer smtp = new FakeSmtpServer();
+             InvoiceEmailOutbox outbox = new InvoiceEmailOutbox(dir.resolve("outbox.journal"),
+                     new SmtpTransport("localhost", smtp.port(), "billing@example.com", Duration.ofSeconds(5)),
+                     2, Duration.ofMillis(5), 5)) {
+            smtp.failNext(2);
+
+            assertTrue(outbox.submit("inv-1", new Invoice("Alice", 42.5), "alice@example.com"));
+            assertFalse(outbox.submit("inv-1", new Invoice("Alice", 42.5), "alice@example.com"));
+            await(() -> outbox.deliveredCount() == 1);
+
+            assertEquals(List.of(new FakeSmtpServer.Message("alice@example.com", "Alice owes 42.5")), smtp.messages());
+            assertEquals(2, outbox.retryCount());
+            assertEquals(0, outbox.queueDepth());
+            assertTrue(outbox.maxDeliveryLatency().compareTo(Duration.ZERO) > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Undelivered emails survive a restart and are not sent twice")
+    void pending_emails_should_be_replayed_after_restart() throws Exception {
+        Path journal = dir.resolve("outbox.journal");
+        EmailTransport down = (to, body) -> { throw new IOException("connection refused"); };
+        try (InvoiceEmailOutbox outbox = new InvoiceEmailOutbox(journal, down, 1, Duration.ofMillis(1), 1)) {
+            outbox.submit("inv-1", new Invoice("Alice", 1.0), "alice@example.com");
+            await(() -> outbox.failedCount() == 1);
+        }
+        try (InvoiceEmailOutbox outbox = new InvoiceEmailOutbox(journal, down, 1, Duration.ofHours(1), 2)) {
+            outbox.submit("inv-2", new Invoice("Bob\tSmith", 2.0), "bob@example.com");
+            await(() -> outbox.retryCount() == 1);
+        }
+        assertTrue(Files.readString(journal).contains("Bob\\tSmith"));
+
+        try (FakeSmtpServer smtp = new FakeSmtpServer();
+             InvoiceEmailOutbox outbox = new InvoiceEmailOutbox(journal,
+                     new SmtpTransport("localhost", smtp.port(), "billing@example.com", Duration.ofSeconds(5)),
+                     1, Duration.ofMillis(1), 3)) {
+            await(() -> outbox.deliveredCount() == 1);
+
+            assertFalse(outbox.submit("inv-1", new Invoice("Alice", 1.0), "alice@example.com"));
+            assertEquals(List.of(new FakeSmtpServer.Message("bob@example.com", "Bob\tSmith owes 2.0")), smtp.messages());
+        }
+    }
+
+    @Test
+    @DisplayName("Header injection in sender or recipient is rejected before the transport is reached")
+    void addresses_with_line_breaks_should_be_rejected() {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        try (InvoiceEmailOutbox outbox = new InvoiceEmailOutbox(dir.resolve("outbox.journal"),
+                (to, body) -> sent.add(to), 1, Duration.ofMillis(1), 1)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> outbox.submit("inv-1", new Invoice("Alice", 1.0), "alice@example.com\r\nBcc: eve@example.com"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> outbox.submit("inv-2", new Invoice("Alice", 1.0), "alice@example.com>\nRCPT TO:<eve"));
+        }
+        assertTrue(sent.isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> new SmtpTransport("localhost", 25, "billing@example.com\nBcc: eve", Duration.ofSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("A rejected submission does not keep its id in flight")
+    void rejected_submission_should_not_block_resubmit() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        try (InvoiceEmailOutbox outbox = new InvoiceEmailOutbox(dir.resolve("outbox.journal"),
+                (to, body) -> sent.add(body), 1, Duration.ofMillis(1), 1)) {
+            assertThrows(IllegalArgumentException.class, () -> outbox.submit("inv-1", null, "alice@example.com"));
+            assertThrows(IllegalArgumentException.class, () -> outbox.submit("inv-1", new Invoice("Alice", 1.0), null));
+
+            assertTrue(outbox.submit("inv-1", new Invoice("Alice", 1.0), "alice@example.com"));
+            await(() -> outbox.deliveredCount() == 1);
+        }
+        assertEquals(List.of("Alice owes 1.0"), sent);
+    }
+
+    @Test
+    @DisplayName("Retry backoff doubles, caps at five minutes and never overflows")
+    void backoff_should_saturate() {
+        long second = Duration.ofSeconds(1).toNanos();
+        long cap = Duration.ofMinutes(5).toNanos();
+
+        assertEquals(second, InvoiceEmailOutbox.backoffNanos(second, 1));
+        assertEquals(4 * second, InvoiceEmailOutbox.backoffNanos(second, 3));
+        for (int attempts = 10; attempts < 200; attempts++) {
+            assertEquals(cap, InvoiceEmailOutbox.backoffNanos(10 * second, attempts));
+        }
+        assertEquals(cap, InvoiceEmailOutbox.backoffNanos(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    @DisplayName("Only the most recent acknowledged ids are remembered for deduplication")
+    void acknowledged_ids_should_be_evicted() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        try (InvoiceEmailOutbox outbox = new InvoiceEmailOutbox(dir.resolve("outbox.journal"),
+                (to, body) -> sent.add(to), 1, Duration.ofMillis(1), 1, 1)) {
+            assertTrue(outbox.submit("inv-1", new Invoice("Alice", 1.0), "alice@example.com"));
+            await(() -> outbox.deliveredCount() == 1);
+            assertFalse(outbox.submit("inv-1", new Invoice("Alice", 1.0), "alice@example.com"));
+
+            assertTrue(outbox.submit("inv-2", new Invoice("Bob", 2.0), "bob@example.com"));
+            await(() -> outbox.deliveredCount() == 2);
+
+            assertTrue(outbox.submit("inv-1", new Invoice("Alice", 1.0), "alice@example.com"));
+            await(() -> outbox.deliveredCount() == 3);
+        }
+        assertEquals(List.of("alice@example.com", "bob@example.com", "alice@example.com"), sent);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package srp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sharded bulk invoice export tests")
+class InvoiceExporterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Invoices are sharded by customer, kept in source order and listed in the manifest")
+    void export_should_shard_by_customer_in_order_with_manifest() throws Exception {
+        InvoiceExporter exporter = new InvoiceExporter(dir, 4, 8);
+        List<Invoice> invoices = IntStream.range(0, 10_000)
+                .mapToObj(i -> new Invoice("customer-" + (i % 37), i))
+                .toList();
+
+        InvoiceExporter.Manifest manifest = exporter.export(invoices.stream());
+
+        assertEquals(4, manifest.shards().size());
+        assertEquals(10_000, manifest.totalRows());
+        List<String> manifestLines = Files.readAllLines(dir.resolve(InvoiceExporter.MANIFEST_FILE));
+        for (int shard = 0; shard < 4; shard++) {
+            InvoiceExporter.Shard info = manifest.shards().get(shard);
+            byte[] content = Files.readAllBytes(dir.resolve(info.file()));
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            assertEquals(crc.getValue(), info.crc32());
+            assertEquals(info.file() + "\t" + info.rows() + "\t" + String.format("%08x", info.crc32()), manifestLines.get(shard));
+
+            int currentShard = shard;
+            List<String> expected = new ArrayList<>();
+            invoices.stream().filter(invoice -> exporter.shardOf(invoice) == currentShard)
+                    .forEach(invoice -> expected.add(invoice.summary()));
+            assertEquals(expected, Files.readAllLines(dir.resolve(info.file())));
+        }
+    }
+
+    @Test
+    @DisplayName("A single hot customer is encoded in parallel and still written in source order")
+    void hot_customer_should_keep_order_across_encoders() throws Exception {
+        InvoiceExporter exporter = new InvoiceExporter(dir, 4, 2, 4);
+        List<Invoice> invoices = IntStream.range(0, 20_000).mapToObj(i -> new Invoice("hot", i)).toList();
+
+        InvoiceExporter.Manifest manifest = exporter.export(invoices.stream());
+
+        assertEquals(20_000, manifest.totalRows());
+        InvoiceExporter.Shard hot = manifest.shards().get(exporter.shardOf(invoices.get(0)));
+        assertEquals(20_000, hot.rows());
+        assertEquals(invoices.stream().map(Invoice::summary).toList(), Files.readAllLines(dir.resolve(hot.file())));
+    }
+
+    @Test
+    @DisplayName("An invoice without a customer or with a line break in it is rejected and no manifest is written")
+    void missing_customer_should_be_rejected() {
+        InvoiceExporter exporter = new InvoiceExporter(dir, 2, 4);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> exporter.export(Stream.of(new Invoice("a", 1.0), new Invoice(null, 2.0))));
+        assertThrows(IllegalArgumentException.class,
+                () -> exporter.export(Stream.of(new Invoice("a", 1.0), new Invoice("b\nc owes 0.0", 2.0))));
+        assertFalse(Files.exists(dir.resolve(InvoiceExporter.MANIFEST_FILE)));
+    }
+
+    @Test
+    @DisplayName("A failing write stops the export and surfaces the I/O error")
+    void write_failure_should_abort_export() throws Exception {
+        Path blocked = dir.resolve("out");
+        Files.createDirectories(blocked.resolve("shard-001.txt"));
+        InvoiceExporter exporter = new InvoiceExporter(blocked, 2, 1);
+
+        UncheckedIOException error = assertThrows(UncheckedIOException.class,
+                () -> exporter.export(IntStream.range(0, 1_000).mapToObj(i -> new Invoice("c" + i, i))));
+
+        assertInstanceOf(IOException.class, error.getCause());
+        assertFalse(Files.exists(blocked.resolve(InvoiceExporter.MANIFEST_FILE)));
+    }
+
+    @Test
+    @DisplayName("A failed re-export does not leave the previous manifest next to partial shards")
+    void failed_reexport_should_remove_stale_manifest() throws Exception {
+        Path out = dir.resolve("out");
+        InvoiceExporter exporter = new InvoiceExporter(out, 2, 1);
+        exporter.export(IntStream.range(0, 100).mapToObj(i -> new Invoice("c" + i, i)));
+        assertTrue(Files.exists(out.resolve(InvoiceExporter.MANIFEST_FILE)));
+
+        Files.delete(out.resolve("shard-001.txt"));
+        Files.createDirectories(out.resolve("shard-001.txt"));
+        assertThrows(UncheckedIOException.class,
+                () -> exporter.export(IntStream.range(0, 1_000).mapToObj(i -> new Invoice("c" + i, i))));
+
+        assertFalse(Files.exists(out.resolve(InvoiceExporter.MANIFEST_FILE)));
+    }
+}
@@ -0,0 +1,110 @@
+package srp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Memory-mapped binary invoice log tests")
+class InvoiceLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Records are readable by sequence number across rolled segments")
+    void records_should_be_addressable_across_segments() {
+        try (InvoiceLog log = new InvoiceLog(dir, 4)) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, log.append(new Invoice(i % 2 == 0 ? "Alice" : "Bob", i + 0.25)));
+            }
+
+            assertEquals(10, log.size());
+            assertEquals(3, log.segmentCount());
+            assertEquals("Bob owes 7.25", log.get(7).summary());
+            assertEquals("Alice owes 0.25", log.get(0).summary());
+            assertThrows(IndexOutOfBoundsException.class, () -> log.get(10));
+            assertThrows(IllegalArgumentException.class, () -> log.append(new Invoice(null, 1.0)));
+        }
+    }
+
+    @Test
+    @DisplayName("Segments that would not fit a single mapping are rejected up front")
+    void oversized_segments_should_be_rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new InvoiceLog(dir, Integer.MAX_VALUE / InvoiceLog.RECORD_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Totals per customer are aggregated by scanning the mapped segments")
+    void totals_should_be_aggregated_per_customer() {
+        try (InvoiceLog log = new InvoiceLog(dir, 3)) {
+            log.append(new Invoice("Alice", 10.0));
+            log.append(new Invoice("Bob", 5.0));
+            log.append(new Invoice("Alice", 2.5));
+            log.append(new Invoice("Carol", 1.0));
+
+            assertEquals(Map.of("Alice", 12.5, "Bob", 5.0, "Carol", 1.0), log.totalOwedPerCustomer());
+        }
+    }
+
+    @Test
+    @DisplayName("Reopening recovers every committed record and discards a torn one")
+    void reopen_should_discard_torn_record() throws Exception {
+        try (InvoiceLog log = new InvoiceLog(dir, 4)) {
+            for (int i = 0; i < 6; i++) {
+                log.append(new Invoice("Alice", i));
+            }
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(dir.resolve("segment-00000001.log").toFile(), "rw")) {
+            segment.seek(InvoiceLog.RECORD_SIZE + 4);
+            segment.writeLong(Double.doubleToLongBits(99.0));
+        }
+        Files.writeString(dir.resolve(InvoiceLog.DICTIONARY_FILE), "Bo", StandardOpenOption.APPEND);
+
+        try (InvoiceLog log = new InvoiceLog(dir, 4)) {
+            assertEquals(5, log.size());
+            assertEquals(4.0, log.get(4).getAmount());
+            assertEquals(5, log.append(new Invoice("Bob", 7.0)));
+            assertEquals("Bob owes 7.0", log.get(5).summary());
+        }
+        try (InvoiceLog log = new InvoiceLog(dir, 4)) {
+            assertEquals(6, log.size());
+            assertEquals("Alice\nBob\n", Files.readString(dir.resolve(InvoiceLog.DICTIONARY_FILE)));
+        }
+    }
+
+    @Test
+    @DisplayName("Reopening treats a short trailing segment left by a crash before mapping as empty")
+    void reopen_should_remap_short_last_segment() throws Exception {
+        try (InvoiceLog log = new InvoiceLog(dir, 4)) {
+            for (int i = 0; i < 8; i++) {
+                log.append(new Invoice("Alice", i));
+            }
+        }
+        Path trailing = dir.resolve("segment-00000002.log");
+        Files.write(trailing, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+
+        try (InvoiceLog log = new InvoiceLog(dir, 4)) {
+            assertEquals(8, log.size());
+            assertEquals(4L * InvoiceLog.RECORD_SIZE, Files.size(trailing));
+            assertEquals(8, log.append(new Invoice("Bob", 8.0)));
+        }
+        try (InvoiceLog log = new InvoiceLog(dir, 4)) {
+            assertEquals(9, log.size());
+            assertEquals("Bob owes 8.0", log.get(8).summary());
+        }
+
+        try (RandomAccessFile segment = new RandomAccessFile(dir.resolve("segment-00000001.log").toFile(), "rw")) {
+            segment.setLength(InvoiceLog.RECORD_SIZE);
+        }
+        assertThrows(IllegalStateException.class, () -> new InvoiceLog(dir, 4));
+    }
+}
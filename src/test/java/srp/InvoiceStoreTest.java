@@ -0,0 +1,96 @@
+package srp;
+
+import money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Buffered invoice store tests")
+class InvoiceStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Many invoices are appended to one file in the saveToFile line format")
+    void append_should_write_summary_lines_to_single_file() throws Exception {
+        Path file = dir.resolve("invoices.txt");
+        try (InvoiceStore store = new InvoiceStore(file, 1000, Duration.ZERO, 64)) {
+            for (int i = 0; i < 100; i++) {
+                store.append(new Invoice("customer-" + i, i + 0.5));
+            }
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(100, lines.size());
+        assertEquals("customer-0 owes 0.5", lines.get(0));
+        assertEquals(new Invoice("customer-99", 99.5).summary(), lines.get(99));
+    }
+
+    @Test
+    @DisplayName("Money invoices read back exactly, legacy double lines still parse")
+    void money_invoices_should_round_trip_exactly() {
+        Path file = dir.resolve("invoices.txt");
+        Money large = Money.parse("90071992547409.93");
+        try (InvoiceStore store = new InvoiceStore(file, 10, Duration.ZERO)) {
+            store.append(new Invoice("Alice", large));
+            store.append(new Invoice("Bob", Money.parse("-0.05")));
+            store.append(new Invoice("Carol", 42.5));
+            store.append(new Invoice("Dave", 1.0E7));
+
+            try (Stream<Invoice> invoices = store.stream()) {
+                List<Invoice> read = invoices.toList();
+
+                assertEquals(large, read.get(0).getMoney());
+                assertEquals(Money.parse("-0.05"), read.get(1).getMoney());
+                assertEquals(42.5, read.get(2).getAmount());
+                assertEquals(1.0E7, read.get(3).getAmount());
+                assertEquals(new Invoice("Alice", large).summary(), read.get(0).summary());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Invoices stream back lazily, including ones still buffered")
+    void stream_should_read_back_appended_invoices() {
+        Path file = dir.resolve("invoices.txt");
+        try (InvoiceStore store = new InvoiceStore(file, 10, Duration.ofMillis(50))) {
+            store.append(new Invoice("Alice", 42.5));
+            store.append(new Invoice("Bob owes Carol", 1.0E-4));
+
+            try (Stream<Invoice> invoices = store.stream()) {
+                Iterator<Invoice> iterator = invoices.iterator();
+                Invoice alice = iterator.next();
+                Invoice bob = iterator.next();
+
+                assertEquals("Alice", alice.getCustomer());
+                assertEquals(42.5, alice.getAmount());
+                assertEquals("Bob owes Carol", bob.getCustomer());
+                assertEquals(1.0E-4, bob.getAmount());
+                assertFalse(iterator.hasNext());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Appending after close, null customers and line breaks in customer names are rejected")
+    void invalid_appends_should_be_rejected() {
+        InvoiceStore store = new InvoiceStore(dir.resolve("invoices.txt"), 1, Duration.ZERO);
+        assertThrows(IllegalArgumentException.class, () -> store.append(new Invoice("Ali\nce", 1.0)));
+        assertThrows(IllegalArgumentException.class, () -> store.append(new Invoice("Ali\rce", 1.0)));
+        assertThrows(IllegalArgumentException.class, () -> store.append(new Invoice(null, 1.0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.appendAll(List.of(new Invoice("Alice", 1.0), new Invoice(null, 1.0))));
+        store.close();
+        assertThrows(IllegalStateException.class, () -> store.append(new Invoice("Alice", 1.0)));
+    }
+}
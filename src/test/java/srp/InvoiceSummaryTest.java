@@ -0,0 +1,52 @@
+package srp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Invoice summary rendering tests")
+class InvoiceSummaryTest {
+
+    @Test
+    @DisplayName("summary() is computed once and keeps Double.toString formatting")
+    void summary_should_be_memoized_with_same_format() {
+        Invoice invoice = new Invoice("Zoë", 1.0E7);
+
+        String first = invoice.summary();
+
+        assertEquals("Zoë owes " + Double.toString(1.0E7), first);
+        assertSame(first, invoice.summary());
+    }
+
+    @Test
+    @DisplayName("Rendering into caller buffers produces the exact summary bytes")
+    void render_should_match_summary_in_every_buffer_type() {
+        Invoice invoice = new Invoice("Zoë", 0.1 + 0.2);
+        String expected = "Zoë owes " + (0.1 + 0.2);
+
+        assertEquals("> " + expected, invoice.renderTo(new StringBuilder("> ")).toString());
+
+        CharBuffer chars = invoice.renderTo(CharBuffer.allocate(64)).flip();
+        assertEquals(expected, chars.toString());
+
+        ByteBuffer bytes = invoice.renderTo(ByteBuffer.allocateDirect(64)).flip();
+        byte[] written = new byte[bytes.remaining()];
+        bytes.get(written);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), written);
+    }
+
+    @Test
+    @DisplayName("A buffer that is too small is left untouched")
+    void render_should_not_partially_write_small_buffers() {
+        ByteBuffer small = ByteBuffer.allocate(4);
+
+        assertThrows(BufferOverflowException.class, () -> new Invoice("Alice", 42.5).renderTo(small));
+        assertEquals(0, small.position());
+    }
+}
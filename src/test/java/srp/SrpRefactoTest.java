@@ -1,12 +1,8 @@
 package srp;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
+import index.ClassIndex;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -47,22 +43,9 @@ class SrpRefactoTest {
               "send", new Class<?>[]{Invoice.class, String.class}
         );
 
-        Path srcPath = Paths.get("src/main/java/srp");
-        List<Class<?>> otherClasses = new ArrayList<>();
-
-        if (Files.exists(srcPath)) {
-            try (Stream<Path> files = Files.walk(srcPath)) {
-                files.filter(path -> path.toString().endsWith(".java"))
-                      .map(path -> path.getFileName().toString().replace(".java", ""))
-                      .filter(className -> !className.equals("Invoice"))
-                      .forEach(className -> {
-                          try {
-                              otherClasses.add(Class.forName("srp." + className));
-                          } catch (ClassNotFoundException e) {
-                          }
-                      });
-            }
-        }
+        List<Class<?>> otherClasses = ClassIndex.classes("srp").stream()
+                .filter(clazz -> !clazz.getSimpleName().equals("Invoice"))
+                .toList();
 
         for (Map.Entry<String, Class<?>[]> entry : expectedMethods.entrySet()) {
             String keyword = entry.getKey();